@@ -28,6 +28,7 @@ plugins {
     id("nebula.maven-apache-license") version "17.3.2"
 
     id("org.openrewrite.rewrite") version "latest.release"
+    id("me.champeau.jmh") version "0.6.5"
 }
 
 apply(plugin = "nebula.publish-verification")
@@ -75,6 +76,57 @@ sourceSets {
     create("after")
 }
 
+// The template stubs under META-INF/rewrite are pre-compiled into a jar each, which StubParsers puts on the template
+// parsers' classpath in place of the stub sources. Each `---` separated section becomes a source file for javac.
+val templateStubs = listOf("AssertJAssertions", "JupiterAssertions", "Parameterized")
+val templateStubsDir = layout.buildDirectory.dir("template-stubs")
+
+val splitTemplateStubs by tasks.registering {
+    val bundles = templateStubs.map { file("src/main/resources/META-INF/rewrite/$it.java") }
+    val outputDir = templateStubsDir.map { it.dir("src") }
+    inputs.files(bundles)
+    outputs.dir(outputDir)
+    doLast {
+        val packageDeclaration = Regex("""^package\s+([\w.]+)\s*;""", RegexOption.MULTILINE)
+        val typeDeclaration = Regex("""^(?:public\s+)?(?:abstract\s+|final\s+)*(?:class|interface|@interface|enum)\s+(\w+)""",
+            RegexOption.MULTILINE)
+        delete(outputDir)
+        bundles.forEach { bundle ->
+            bundle.readText().split("---").forEach { section ->
+                val type = typeDeclaration.find(section)
+                if (type != null) {
+                    val packagePath = packageDeclaration.find(section)?.groupValues?.get(1)?.replace('.', '/') ?: ""
+                    outputDir.get().file("${bundle.nameWithoutExtension}/$packagePath/${type.groupValues[1]}.java").asFile.apply {
+                        parentFile.mkdirs()
+                        writeText(section)
+                    }
+                }
+            }
+        }
+    }
+}
+
+val templateStubJars = templateStubs.map { stub ->
+    val compileStubs = tasks.register<JavaCompile>("compile${stub}Stubs") {
+        dependsOn(splitTemplateStubs)
+        source(templateStubsDir.map { it.dir("src/$stub") })
+        classpath = files()
+        destinationDirectory.set(templateStubsDir.map { it.dir("classes/$stub") })
+        sourceCompatibility = JavaVersion.VERSION_1_8.toString()
+        targetCompatibility = JavaVersion.VERSION_1_8.toString()
+        options.compilerArgs.addAll(listOf("--release", "8", "-nowarn"))
+    }
+    tasks.register<Jar>("jar${stub}Stubs") {
+        from(compileStubs)
+        archiveFileName.set("$stub.jar")
+        destinationDirectory.set(templateStubsDir.map { it.dir("resources/META-INF/rewrite/classpath") })
+    }
+}
+
+sourceSets.main {
+    resources.srcDir(files(templateStubsDir.map { it.dir("resources") }).builtBy(templateStubJars))
+}
+
 configurations.all {
     resolutionStrategy {
         cacheChangingModulesFor(0, TimeUnit.SECONDS)
@@ -125,6 +177,14 @@ dependencies {
     "afterImplementation"("org.junit.jupiter:junit-jupiter-params:latest.release")
     "afterImplementation"("org.mockito:mockito-core:latest.release")
     "afterRuntimeOnly"("org.junit.jupiter:junit-jupiter-engine:latest.release")
+
+    jmh("org.openrewrite:rewrite-java-11:$rewriteVersion")
+    jmh("junit:junit:latest.release")
+    jmh("org.hamcrest:hamcrest:latest.release")
+    jmh("org.mockito:mockito-core:$mockito1Version")
+    jmh("com.squareup.okhttp3:mockwebserver:3.+")
+    jmh("org.junit.jupiter:junit-jupiter-api:latest.release")
+    jmh("pl.pragmatists:JUnitParams:1.+")
 }
 
 tasks.withType(KotlinCompile::class.java).configureEach {
@@ -147,6 +207,19 @@ tasks.named<JavaCompile>("compileJava") {
     options.compilerArgs.addAll(listOf("--release", "8"))
 }
 
+jmh {
+    fork.set(1)
+    warmupIterations.set(2)
+    iterations.set(3)
+    profilers.add("gc")
+    // benchmarks generate their sources with the corpus generator in the test source set
+    includeTests.set(true)
+    // e.g. -PjmhInclude=AssertJRecipesBenchmark to run a single benchmark class
+    if (project.hasProperty("jmhInclude")) {
+        includes.add(project.property("jmhInclude").toString())
+    }
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
     options.compilerArgs.add("-parameters")
@@ -171,6 +244,7 @@ configure<LicenseExtension> {
     skipExistingHeaders = true
     header = project.rootProject.file("gradle/licenseHeader.txt")
     mapping(mapOf("kt" to "SLASHSTAR_STYLE", "java" to "SLASHSTAR_STYLE"))
+    exclude("**/classpath/*.jar")
     strictCheck = true
 }
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.config.Environment;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a recipe, activated by name so that declarative composites can be measured too, over synthetic test classes
+ * of configurable size. Sources are parsed once per trial, so only the recipe run itself is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public abstract class RecipeBenchmark {
+    @Param({"10"})
+    public int classes;
+
+    @Param({"5", "50"})
+    public int methodsPerClass;
+
+    @Param({"1", "10"})
+    public int assertionsPerMethod;
+
+    private Recipe activeRecipe;
+    private List<J.CompilationUnit> sources;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        activeRecipe = Environment.builder()
+                .scanRuntimeClasspath("org.openrewrite.java.testing")
+                .build()
+                .activateRecipes(recipe());
+
+        String[] classSources = new String[classes];
+        for (int i = 0; i < classes; i++) {
+            classSources[i] = testClass("Test" + i);
+        }
+        sources = JavaParser.fromJavaVersion()
+                .classpath(classpath())
+                .build()
+                .parse(classSources);
+    }
+
+    @Benchmark
+    public List<Result> run() {
+        return activeRecipe.run(sources, new InMemoryExecutionContext(Throwable::printStackTrace));
+    }
+
+    /**
+     * @return The name of the recipe to run.
+     */
+    protected abstract String recipe();
+
+    /**
+     * @return The artifact names the synthetic sources are compiled against.
+     */
+    protected abstract String[] classpath();
+
+    /**
+     * @param className The simple name of the class to generate.
+     * @return The source of a test class with {@link #methodsPerClass} methods of {@link #assertionsPerMethod}
+     * assertions each.
+     */
+    protected abstract String testClass(String className);
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.assertj;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openrewrite.java.testing.RecipeBenchmark;
+
+public class AssertJRecipesBenchmark extends RecipeBenchmark {
+    private static final String[] ASSERTIONS = {
+            "assertEquals(1, actual(), \"message\");",
+            "assertNotEquals(2, actual());",
+            "assertEquals(1.0, 1.0, 0.1);",
+            "assertTrue(actual() > 0, \"message\");",
+            "assertFalse(actual() < 0);",
+            "assertNull(null);",
+            "assertNotNull(new Object(), () -> \"message\");",
+            "assertSame(this, this);",
+            "assertArrayEquals(new int[]{1}, new int[]{actual()});"
+    };
+
+    @Param({
+            "org.openrewrite.java.testing.assertj.JUnitAssertArrayEqualsToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertEqualsToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertFalseToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertNotEqualsToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertNotNullToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertNullToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertSameToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitAssertTrueToAssertThat",
+            "org.openrewrite.java.testing.assertj.JUnitFailToAssertJFail",
+            "org.openrewrite.java.testing.assertj.JUnitAssertionsToAssertJ",
+            "org.openrewrite.java.testing.assertj.Assertj"
+    })
+    public String recipe;
+
+    @Override
+    protected String recipe() {
+        return recipe;
+    }
+
+    @Override
+    protected String[] classpath() {
+        return new String[]{"junit-jupiter-api", "apiguardian-api"};
+    }
+
+    @Override
+    protected String testClass(String className) {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example;\n\n")
+                .append("import org.junit.jupiter.api.Test;\n\n")
+                .append("import static org.junit.jupiter.api.Assertions.*;\n\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    int actual() {\n        return 1;\n    }\n");
+
+        for (int m = 0; m < methodsPerClass; m++) {
+            source.append("\n    @Test\n    void test").append(m).append("() {\n");
+            for (int a = 0; a < assertionsPerMethod; a++) {
+                source.append("        ").append(ASSERTIONS[(m + a) % ASSERTIONS.length]).append('\n');
+            }
+            if (m % 10 == 9) {
+                source.append("        fail(\"unreachable\");\n");
+            }
+            source.append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openrewrite.java.testing.RecipeBenchmark;
+
+public class CleanupRecipesBenchmark extends RecipeBenchmark {
+    @Param({
+            "org.openrewrite.java.testing.cleanup.TestsShouldIncludeAssertions",
+            "org.openrewrite.java.testing.cleanup.BestPractices"
+    })
+    public String recipe;
+
+    @Override
+    protected String recipe() {
+        return recipe;
+    }
+
+    @Override
+    protected String[] classpath() {
+        return new String[]{"junit-jupiter-api", "apiguardian-api"};
+    }
+
+    @Override
+    protected String testClass(String className) {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example;\n\n")
+                .append("import org.junit.jupiter.api.Test;\n\n")
+                .append("import static org.junit.jupiter.api.Assertions.assertEquals;\n\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    int actual() {\n        return 1;\n    }\n");
+
+        for (int m = 0; m < methodsPerClass; m++) {
+            source.append("\n    @Test\n    void test").append(m).append("() {\n");
+            for (int a = 0; a < assertionsPerMethod; a++) {
+                // Every other test only exercises code, so the recipe has methods to flag.
+                source.append(m % 2 == 0 ?
+                        "        assertEquals(1, actual());\n" :
+                        "        actual();\n");
+            }
+            source.append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
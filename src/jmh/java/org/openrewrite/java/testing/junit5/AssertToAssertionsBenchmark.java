@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Result;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per operation should grow linearly with the number of assertions in the class, since retargeting
+ * {@code org.junit.Assert} calls is scheduled once per compilation unit rather than once per invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AssertToAssertionsBenchmark {
+    private static final String[] ASSERTIONS = {
+            "Assert.assertEquals(\"message\", 1, 1);",
+            "Assert.assertTrue(\"message\", true);",
+            "Assert.assertFalse(false);",
+            "Assert.assertNull(null);",
+            "Assert.assertNotNull(\"message\", new Object());",
+            "Assert.assertSame(this, this);",
+            "Assert.assertArrayEquals(new int[]{1}, new int[]{1});"
+    };
+
+    @Param({"10", "100", "1000"})
+    int assertions;
+
+    List<J.CompilationUnit> cus;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder source = new StringBuilder("import org.junit.Assert;\n\nclass Test {\n    void test() {\n");
+        for (int i = 0; i < assertions; i++) {
+            source.append("        ").append(ASSERTIONS[i % ASSERTIONS.length]).append('\n');
+        }
+        source.append("    }\n}\n");
+
+        cus = JavaParser.fromJavaVersion()
+                .classpath("junit")
+                .build()
+                .parse(source.toString());
+    }
+
+    @Benchmark
+    public void assertToAssertions(Blackhole blackhole) {
+        List<Result> results = new AssertToAssertions().run(cus, new InMemoryExecutionContext(Throwable::printStackTrace));
+        blackhole.consume(results);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visits a large class with nested classes and no {@code @Category} at all, to measure what the visitor allocates
+ * when there is nothing to change. Run with the gc profiler and compare {@code gc.alloc.rate.norm} across versions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CategoryToTagBenchmark {
+    @Param({"10", "100", "1000"})
+    int methods;
+
+    @Param({"1", "5"})
+    int nesting;
+
+    J.CompilationUnit cu;
+
+    ExecutionContext ctx;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder source = new StringBuilder("import org.junit.Test;\n\n");
+        for (int depth = 0; depth < nesting; depth++) {
+            source.append("@Deprecated\npublic class Test").append(depth).append(" {\n");
+            for (int i = 0; i < methods / nesting; i++) {
+                source.append("    @Test\n    @Deprecated\n    public void test").append(i).append("() {\n    }\n");
+            }
+        }
+        for (int depth = 0; depth < nesting; depth++) {
+            source.append("}\n");
+        }
+
+        cu = JavaParser.fromJavaVersion()
+                .classpath("junit")
+                .build()
+                .parse(source.toString())
+                .get(0);
+        ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+    }
+
+    @Benchmark
+    public void categoryToTag(Blackhole blackhole) {
+        blackhole.consume(new CategoryToTag.CategoryToTagVisitor().visit(cu, ctx));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openrewrite.java.testing.RecipeBenchmark;
+import org.openrewrite.java.testing.corpus.JUnit4Corpus;
+
+/**
+ * Runs the JUnit 4 migration recipes over a seeded {@link JUnit4Corpus} with the default mix of constructs.
+ */
+public class JUnit5RecipesBenchmark extends RecipeBenchmark {
+    @Param({
+            "org.openrewrite.java.testing.junit5.AssertToAssertions",
+            "org.openrewrite.java.testing.junit5.CategoryToTag",
+            "org.openrewrite.java.testing.junit5.CleanupJUnitImports",
+            "org.openrewrite.java.testing.junit5.ExpectedExceptionToAssertThrows",
+            "org.openrewrite.java.testing.junit5.JUnitParamsRunnerToParameterized",
+            "org.openrewrite.java.testing.junit5.MigrateJUnitTestCase",
+            "org.openrewrite.java.testing.junit5.MockitoJUnitToMockitoExtension",
+            "org.openrewrite.java.testing.junit5.ParameterizedRunnerToParameterized",
+            "org.openrewrite.java.testing.junit5.TemporaryFolderToTempDir",
+            "org.openrewrite.java.testing.junit5.UpdateBeforeAfterAnnotations",
+            "org.openrewrite.java.testing.junit5.UpdateMockWebServer",
+            "org.openrewrite.java.testing.junit5.UpdateTestAnnotation",
+            "org.openrewrite.java.testing.junit5.UseTestMethodOrder",
+            "org.openrewrite.java.testing.junit5.JUnit4to5Migration"
+    })
+    public String recipe;
+
+    @Param({"0"})
+    public long seed;
+
+    private JUnit4Corpus corpus;
+
+    @Override
+    protected String recipe() {
+        return recipe;
+    }
+
+    @Override
+    protected String[] classpath() {
+        return corpus().getClasspath();
+    }
+
+    @Override
+    protected String testClass(String className) {
+        return corpus().generate(className);
+    }
+
+    private JUnit4Corpus corpus() {
+        if (corpus == null) {
+            corpus = new JUnit4Corpus(seed, methodsPerClass, assertionsPerMethod);
+        }
+        return corpus;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openrewrite.java.testing.RecipeBenchmark;
+
+public class MockitoRecipesBenchmark extends RecipeBenchmark {
+    private static final String[] STUBBINGS = {
+            "when(list.get(Matchers.anyInt())).thenReturn(\"value\");",
+            "verify(list).add(Matchers.anyString());",
+            "when(list.containsAll(Matchers.anyCollection())).thenReturn(true);",
+            "verify(list, never()).clear();"
+    };
+
+    @Param({
+            "org.openrewrite.java.testing.mockito.CleanupMockitoImports",
+            "org.openrewrite.java.testing.mockito.MockUtilsToStatic",
+            "org.openrewrite.java.testing.mockito.Mockito1to3Migration"
+    })
+    public String recipe;
+
+    @Override
+    protected String recipe() {
+        return recipe;
+    }
+
+    @Override
+    protected String[] classpath() {
+        return new String[]{"junit", "mockito"};
+    }
+
+    @Override
+    protected String testClass(String className) {
+        StringBuilder source = new StringBuilder();
+        source.append("package com.example;\n\n")
+                .append("import org.junit.Test;\n")
+                .append("import org.junit.runner.RunWith;\n")
+                .append("import org.mockito.Matchers;\n")
+                .append("import org.mockito.Mock;\n")
+                .append("import org.mockito.internal.util.MockUtil;\n")
+                .append("import org.mockito.runners.MockitoJUnitRunner;\n\n")
+                .append("import java.util.List;\n\n")
+                .append("import static org.mockito.Mockito.*;\n\n")
+                .append("@RunWith(MockitoJUnitRunner.class)\n")
+                .append("public class ").append(className).append(" {\n")
+                .append("    @Mock\n    List<String> list;\n");
+
+        for (int m = 0; m < methodsPerClass; m++) {
+            source.append("\n    @Test\n    public void test").append(m).append("() {\n");
+            if (m % 5 == 0) {
+                source.append("        boolean isMock = new MockUtil().isMock(list);\n");
+            }
+            for (int a = 0; a < assertionsPerMethod; a++) {
+                source.append("        ").append(STUBBINGS[(m + a) % STUBBINGS.length]).append('\n');
+            }
+            source.append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
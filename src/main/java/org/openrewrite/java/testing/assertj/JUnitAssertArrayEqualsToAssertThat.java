@@ -16,28 +16,14 @@
 package org.openrewrite.java.testing.assertj;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesType;
-import org.openrewrite.java.tree.Expression;
-import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.JavaType;
-import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 
-public class JUnitAssertArrayEqualsToAssertThat extends Recipe {
+public class JUnitAssertArrayEqualsToAssertThat extends ReferencedTypesRecipe {
     private static final String JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME = "org.junit.jupiter.api.Assertions";
-    private static final ThreadLocal<JavaParser> ASSERTJ_JAVA_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(
-                    Parser.Input.fromResource("/META-INF/rewrite/AssertJAssertions.java", "---")
-            ).build()
-    );
 
     @Override
     public String getDisplayName() {
@@ -50,112 +36,23 @@ public class JUnitAssertArrayEqualsToAssertThat extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME);
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME);
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AssertArrayEqualsToAssertThatVisitor();
+    public boolean isInheritable() {
+        return true;
     }
 
-    public static class AssertArrayEqualsToAssertThatVisitor extends JavaIsoVisitor<ExecutionContext> {
-        private static final MethodMatcher JUNIT_ASSERT_EQUALS = new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertArrayEquals(..)");
-
-        @Override
-        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-            if (!JUNIT_ASSERT_EQUALS.matches(method)) {
-                return method;
-            }
-
-            List<Expression> args = method.getArguments();
-
-            Expression expected = args.get(0);
-            Expression actual = args.get(1);
-
-            if (args.size() == 2) {
-                method = method.withTemplate(
-                        template("assertThat(#{anyArray()}).containsExactly(#{anyArray()});")
-                                .staticImports("org.assertj.core.api.Assertions.assertThat")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual,
-                        expected
-                );
-            } else if (args.size() == 3 && !isFloatingPointType(args.get(2))) {
-                // In assertJ the "as" method has a more informative error message, but doesn't accept String suppliers
-                // so we're using "as" if the message is a string and "withFailMessage" if it is a supplier.
-                Expression message = args.get(2);
-                JavaTemplate.Builder template = TypeUtils.isString(message.getType()) ?
-                        template("assertThat(#{anyArray()}).as(#{any(String)}).containsExactly(#{anyArray()});") :
-                        template("assertThat(#{anyArray()}).withFailMessage(#{any(java.util.function.Supplier)}).containsExactly(#{anyArray()});");
-
-                method = method.withTemplate(template
-                                .staticImports("org.assertj.core.api.Assertions.assertThat")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual,
-                        message,
-                        expected
-                );
-            } else if (args.size() == 3) {
-                // assert is using floating points with a delta and no message.
-                method = method.withTemplate(
-                        template("assertThat(#{anyArray()}).containsExactly(#{anyArray()}, within(#{any()}));")
-                                .staticImports("org.assertj.core.api.Assertions.assertThat", "org.assertj.core.api.Assertions.within")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual,
-                        expected,
-                        args.get(2)
-                );
-                maybeAddImport("org.assertj.core.api.Assertions", "within");
-            } else {
-                // The assertEquals is using a floating point with a delta argument and a message.
-                // If the message is a string use "as", if it is a supplier use "withFailMessage"
-                Expression message = args.get(3);
-                JavaTemplate.Builder template = TypeUtils.isString(message.getType()) ?
-                        template("assertThat(#{anyArray()}).as(#{any(String)}).containsExactly(#{anyArray()}, within(#{any()}));") :
-                        template("assertThat(#{anyArray()}).withFailMessage(#{any(java.util.function.Supplier)}).containsExactly(#{anyArray()}, within(#{}));");
-
-                method = method.withTemplate(template
-                                .staticImports("org.assertj.core.api.Assertions.assertThat", "org.assertj.core.api.Assertions.within")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual,
-                        message,
-                        expected,
-                        args.get(2)
-                );
-                maybeAddImport("org.assertj.core.api.Assertions", "within");
-            }
-
-            maybeAddImport("org.assertj.core.api.Assertions", "assertThat");
-            maybeRemoveImport(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME);
-
-            return method;
-        }
-
-        /**
-         * Returns true if the expression's type is either a primitive float/double or their object forms Float/Double
-         *
-         * @param expression The expression parsed from the original AST.
-         * @return true if the type is a floating point number.
-         */
-        private static boolean isFloatingPointType(Expression expression) {
-
-            JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(expression.getType());
-            if (fullyQualified != null) {
-                String typeName = fullyQualified.getFullyQualifiedName();
-                return (typeName.equals("java.lang.Double") || typeName.equals("java.lang.Float"));
-            }
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new AssertArrayEqualsToAssertThatVisitor();
+    }
 
-            JavaType.Primitive parameterType = TypeUtils.asPrimitive(expression.getType());
-            return parameterType == JavaType.Primitive.Double || parameterType == JavaType.Primitive.Float;
+    public static class AssertArrayEqualsToAssertThatVisitor extends JUnitAssertionsToAssertJ.JUnitAssertionsToAssertJVisitor {
+        public AssertArrayEqualsToAssertThatVisitor() {
+            super("assertArrayEquals");
         }
     }
 }
@@ -16,26 +16,13 @@
 package org.openrewrite.java.testing.assertj;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesType;
-import org.openrewrite.java.tree.Expression;
-import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 
-public class JUnitAssertFalseToAssertThat extends Recipe {
-    private static final ThreadLocal<JavaParser> ASSERTJ_JAVA_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(
-                    Parser.Input.fromResource("/META-INF/rewrite/AssertJAssertions.java", "---")
-            ).build()
-    );
+public class JUnitAssertFalseToAssertThat extends ReferencedTypesRecipe {
 
     @Override
     public String getDisplayName() {
@@ -48,56 +35,23 @@ public class JUnitAssertFalseToAssertThat extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.jupiter.api.Assertions");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.jupiter.api.Assertions");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new AssertFalseToAssertThatVisitor();
+    public boolean isInheritable() {
+        return true;
     }
 
-    public static class AssertFalseToAssertThatVisitor extends JavaIsoVisitor<ExecutionContext> {
-        private static final MethodMatcher JUNIT_ASSERT_FALSE = new MethodMatcher("org.junit.jupiter.api.Assertions" + " assertFalse(boolean, ..)");
-
-        @Override
-        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-            if (!JUNIT_ASSERT_FALSE.matches(method)) {
-                return method;
-            }
-
-            List<Expression> args = method.getArguments();
-            Expression actual = args.get(0);
-
-            if (args.size() == 1) {
-                method = method.withTemplate(
-                        template("assertThat(#{any(boolean)}).isFalse();")
-                                .staticImports("org.assertj.core.api.Assertions.assertThat")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual
-                );
-            } else {
-                Expression message = args.get(1);
-                JavaTemplate.Builder template = TypeUtils.isString(message.getType()) ?
-                        template("assertThat(#{any(boolean)}).as(#{any(String)}).isFalse();") :
-                        template("assertThat(#{any(boolean)}).withFailMessage(#{any(java.util.function.Supplier)}).isFalse();");
-
-                method = method.withTemplate(template
-                                .staticImports("org.assertj.core.api.Assertions.assertThat")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        actual,
-                        message
-                );
-            }
-
-            maybeAddImport("org.assertj.core.api.Assertions", "assertThat");
-            maybeRemoveImport("org.junit.jupiter.api.Assertions");
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new AssertFalseToAssertThatVisitor();
+    }
 
-            return method;
+    public static class AssertFalseToAssertThatVisitor extends JUnitAssertionsToAssertJ.JUnitAssertionsToAssertJVisitor {
+        public AssertFalseToAssertThatVisitor() {
+            super("assertFalse");
         }
     }
 }
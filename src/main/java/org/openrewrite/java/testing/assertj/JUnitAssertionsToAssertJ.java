@@ -0,0 +1,329 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.assertj;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTemplate;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.RemoveUnusedImports;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts every JUnit Jupiter assertion that has an AssertJ equivalent in one pass over the tree, dispatching on the
+ * name of the invoked {@code Assertions} method. The single-assertion recipes like
+ * {@link JUnitAssertEqualsToAssertThat} run this visitor restricted to their method.
+ */
+public class JUnitAssertionsToAssertJ extends ReferencedTypesRecipe {
+    private static final String JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME = "org.junit.jupiter.api.Assertions";
+    private static final ThreadLocal<JavaParser> ASSERTJ_JAVA_PARSER = StubParsers.fromResources(StubParsers.ASSERTJ_ASSERTIONS);
+
+    @Override
+    public String getDisplayName() {
+        return "JUnit assertions to AssertJ";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Convert JUnit-style `assertEquals()`, `assertTrue()`, `fail()` and the other JUnit assertions that have an AssertJ equivalent to AssertJ's `assertThat()` and `fail()`.";
+    }
+
+    @Override
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME);
+    }
+
+    @Override
+    public boolean isInheritable() {
+        return true;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new JUnitAssertionsToAssertJVisitor();
+    }
+
+    public static class JUnitAssertionsToAssertJVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private static final Map<String, MethodMatcher> ASSERTION_MATCHERS = new HashMap<>();
+
+        static {
+            ASSERTION_MATCHERS.put("assertArrayEquals", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertArrayEquals(..)"));
+            ASSERTION_MATCHERS.put("assertEquals", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertEquals(..)"));
+            ASSERTION_MATCHERS.put("assertFalse", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertFalse(boolean, ..)"));
+            ASSERTION_MATCHERS.put("assertNotEquals", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertNotEquals(..)"));
+            ASSERTION_MATCHERS.put("assertNotNull", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertNotNull(..)"));
+            ASSERTION_MATCHERS.put("assertNull", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertNull(..)"));
+            ASSERTION_MATCHERS.put("assertSame", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertSame(..)"));
+            ASSERTION_MATCHERS.put("assertTrue", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " assertTrue(boolean, ..)"));
+            ASSERTION_MATCHERS.put("fail", new MethodMatcher(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME + " fail(..)"));
+        }
+
+        private final Set<String> assertions;
+
+        public JUnitAssertionsToAssertJVisitor() {
+            this(ASSERTION_MATCHERS.keySet());
+        }
+
+        /**
+         * @param assertion The name of the only JUnit assertion to convert.
+         */
+        protected JUnitAssertionsToAssertJVisitor(String assertion) {
+            this(Collections.singleton(assertion));
+        }
+
+        private JUnitAssertionsToAssertJVisitor(Set<String> assertions) {
+            this.assertions = assertions;
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+            String assertion = method.getSimpleName();
+            MethodMatcher matcher = ASSERTION_MATCHERS.get(assertion);
+            if (matcher == null || !assertions.contains(assertion) || !matcher.matches(method)) {
+                return method;
+            }
+
+            List<Expression> args = method.getArguments();
+            switch (assertion) {
+                case "assertArrayEquals":
+                    method = expectedActual(method, args, "#{anyArray()}", ".containsExactly(#{anyArray()})", ".containsExactly(#{anyArray()}, within(#{any()}))");
+                    break;
+                case "assertEquals":
+                    method = expectedActual(method, args, "#{any()}", ".isEqualTo(#{any()})", ".isCloseTo(#{any()}, within(#{any()}))");
+                    break;
+                case "assertNotEquals":
+                    method = expectedActual(method, args, "#{any()}", ".isNotEqualTo(#{any()})", ".isNotCloseTo(#{any()}, within(#{any()}))");
+                    break;
+                case "assertSame":
+                    method = expectedActual(method, args, "#{any()}", ".isSameAs(#{any()})", null);
+                    break;
+                case "assertFalse":
+                    method = actual(method, args, "#{any(boolean)}", ".isFalse()");
+                    break;
+                case "assertTrue":
+                    method = actual(method, args, "#{any(boolean)}", ".isTrue()");
+                    break;
+                case "assertNotNull":
+                    method = actual(method, args, "#{any()}", ".isNotNull()");
+                    break;
+                case "assertNull":
+                    method = actual(method, args, "#{any()}", ".isNull()");
+                    break;
+                case "fail":
+                default:
+                    return fail(method, args);
+            }
+
+            maybeAddImport("org.assertj.core.api.Assertions", "assertThat");
+            maybeRemoveImport(JUNIT_QUALIFIED_ASSERTIONS_CLASS_NAME);
+            return method;
+        }
+
+        /**
+         * Converts assertions of the form {@code assertX(expected, actual[, delta][, message])}.
+         *
+         * @param actualParameter The template parameter of the actual value.
+         * @param assertion       The AssertJ assertion on the expected value.
+         * @param closeTo         The AssertJ assertion on the expected value within a floating point delta, or null if
+         *                        the JUnit assertion has no delta variant.
+         */
+        private J.MethodInvocation expectedActual(J.MethodInvocation method, List<Expression> args, String actualParameter,
+                                                  String assertion, @Nullable String closeTo) {
+            Expression expected = args.get(0);
+            Expression actual = args.get(1);
+
+            if (args.size() == 2) {
+                return method.withTemplate(
+                        assertJTemplate("assertThat(" + actualParameter + ")" + assertion + ";", "org.assertj.core.api.Assertions.assertThat"),
+                        method.getCoordinates().replace(),
+                        actual,
+                        expected
+                );
+            } else if (args.size() == 3 && (closeTo == null || !isFloatingPointType(args.get(2)))) {
+                Expression message = args.get(2);
+                return method.withTemplate(
+                        assertJTemplate("assertThat(" + actualParameter + ")" + describedAs(message) + assertion + ";", "org.assertj.core.api.Assertions.assertThat"),
+                        method.getCoordinates().replace(),
+                        actual,
+                        message,
+                        expected
+                );
+            }
+
+            maybeAddImport("org.assertj.core.api.Assertions", "within");
+            if (args.size() == 3) {
+                // The assertion is using floating points with a delta and no message.
+                return method.withTemplate(
+                        assertJTemplate("assertThat(" + actualParameter + ")" + closeTo + ";", "org.assertj.core.api.Assertions.assertThat", "org.assertj.core.api.Assertions.within"),
+                        method.getCoordinates().replace(),
+                        actual,
+                        expected,
+                        args.get(2)
+                );
+            }
+
+            // The assertion is using floating points with a delta argument and a message.
+            Expression message = args.get(3);
+            return method.withTemplate(
+                    assertJTemplate("assertThat(" + actualParameter + ")" + describedAs(message) + closeTo + ";", "org.assertj.core.api.Assertions.assertThat", "org.assertj.core.api.Assertions.within"),
+                    method.getCoordinates().replace(),
+                    actual,
+                    message,
+                    expected,
+                    args.get(2)
+            );
+        }
+
+        /**
+         * Converts assertions of the form {@code assertX(actual[, message])}.
+         */
+        private J.MethodInvocation actual(J.MethodInvocation method, List<Expression> args, String actualParameter, String assertion) {
+            Expression actual = args.get(0);
+
+            if (args.size() == 1) {
+                return method.withTemplate(
+                        assertJTemplate("assertThat(" + actualParameter + ")" + assertion + ";", "org.assertj.core.api.Assertions.assertThat"),
+                        method.getCoordinates().replace(),
+                        actual
+                );
+            }
+
+            Expression message = args.get(1);
+            return method.withTemplate(
+                    assertJTemplate("assertThat(" + actualParameter + ")" + describedAs(message) + assertion + ";", "org.assertj.core.api.Assertions.assertThat"),
+                    method.getCoordinates().replace(),
+                    actual,
+                    message
+            );
+        }
+
+        private J.MethodInvocation fail(J.MethodInvocation m, List<Expression> args) {
+            if (args.size() == 1) {
+                // fail(), fail(String), fail(Supplier<String>), fail(Throwable)
+                if (args.get(0) instanceof J.Empty) {
+                    m = m.withTemplate(
+                            assertJTemplate("org.assertj.core.api.Assertions.fail(\"\");"),
+                            m.getCoordinates().replace()
+                    );
+                } else if (args.get(0) instanceof J.Literal) {
+                    m = m.withTemplate(
+                            assertJTemplate("org.assertj.core.api.Assertions.fail(#{});"),
+                            m.getCoordinates().replace(),
+                            args.get(0)
+                    );
+                } else {
+                    m = m.withTemplate(
+                            assertJTemplate("org.assertj.core.api.Assertions.fail(\"\", #{any()});"),
+                            m.getCoordinates().replace(),
+                            args.get(0)
+                    );
+                }
+            } else {
+                // fail(String, Throwable)
+                m = m.withTemplate(assertJTemplate("org.assertj.core.api.Assertions.fail(" + anyParameters(args.size()) + ");"),
+                        m.getCoordinates().replace(),
+                        args.toArray()
+                );
+            }
+
+            doAfterVisit(new RemoveUnusedImports());
+            doAfterVisit(new UnqualifyFailInvocations());
+            return m;
+        }
+
+        private JavaTemplate assertJTemplate(String code, String... staticImports) {
+            return template(code)
+                    .staticImports(staticImports)
+                    .javaParser(ASSERTJ_JAVA_PARSER::get)
+                    .build();
+        }
+
+        /**
+         * In AssertJ the "as" method has a more informative error message, but doesn't accept String suppliers, so
+         * "as" is used if the message is a string and "withFailMessage" if it is a supplier.
+         */
+        private static String describedAs(Expression message) {
+            return TypeUtils.isString(message.getType()) ?
+                    ".as(#{any(String)})" :
+                    ".withFailMessage(#{any(java.util.function.Supplier)})";
+        }
+
+        private static String anyParameters(int count) {
+            StringBuilder parameters = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                parameters.append("#{any()}");
+                if (i < count - 1) {
+                    parameters.append(", ");
+                }
+            }
+            return parameters.toString();
+        }
+
+        /**
+         * Returns true if the expression's type is either a primitive float/double or their object forms Float/Double
+         *
+         * @param expression The expression parsed from the original AST.
+         * @return true if the type is a floating point number.
+         */
+        private static boolean isFloatingPointType(Expression expression) {
+            JavaType.FullyQualified fullyQualified = TypeUtils.asFullyQualified(expression.getType());
+            if (fullyQualified != null) {
+                String typeName = fullyQualified.getFullyQualifiedName();
+                return (typeName.equals("java.lang.Double") || typeName.equals("java.lang.Float"));
+            }
+
+            JavaType.Primitive parameterType = TypeUtils.asPrimitive(expression.getType());
+            return parameterType == JavaType.Primitive.Double || parameterType == JavaType.Primitive.Float;
+        }
+
+        private static class UnqualifyFailInvocations extends JavaIsoVisitor<ExecutionContext> {
+            private static final MethodMatcher ASSERTJ_FAIL_MATCHER = new MethodMatcher("org.assertj.core.api.Assertions" + " fail(..)");
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext executionContext) {
+                if (!ASSERTJ_FAIL_MATCHER.matches(method)) {
+                    return method;
+                }
+
+                List<Expression> arguments = method.getArguments();
+                method = method.withTemplate(template("fail(" + anyParameters(arguments.size()) + ");")
+                                .staticImports("org.assertj.core.api.Assertions" + ".fail")
+                                .javaParser(ASSERTJ_JAVA_PARSER::get)
+                                .build(),
+                        method.getCoordinates().replace(),
+                        arguments.toArray()
+                );
+                maybeAddImport("org.assertj.core.api.Assertions", "fail");
+                return super.visitMethodInvocation(method, executionContext);
+            }
+        }
+    }
+}
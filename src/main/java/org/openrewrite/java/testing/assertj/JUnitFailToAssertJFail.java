@@ -16,25 +16,13 @@
 package org.openrewrite.java.testing.assertj;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.RemoveUnusedImports;
-import org.openrewrite.java.search.UsesType;
-import org.openrewrite.java.tree.Expression;
-import org.openrewrite.java.tree.J;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
 
-public class JUnitFailToAssertJFail extends Recipe {
-    private static final ThreadLocal<JavaParser> ASSERTJ_JAVA_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(
-                    Parser.Input.fromResource("/META-INF/rewrite/AssertJAssertions.java", "---")
-            ).build()
-    );
+public class JUnitFailToAssertJFail extends ReferencedTypesRecipe {
 
     @Override
     public String getDisplayName() {
@@ -47,107 +35,23 @@ public class JUnitFailToAssertJFail extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.jupiter.api.Assertions");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.jupiter.api.Assertions");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new JUnitFailToAssertJFailVisitor();
+    public boolean isInheritable() {
+        return true;
     }
 
-    public static class JUnitFailToAssertJFailVisitor extends JavaIsoVisitor<ExecutionContext> {
-        private static final MethodMatcher JUNIT_FAIL_MATCHER = new MethodMatcher("org.junit.jupiter.api.Assertions" + " fail(..)");
-
-        @Override
-        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
-            J.MethodInvocation m = method;
-
-            if (!JUNIT_FAIL_MATCHER.matches(m)) {
-                return m;
-            }
-
-            List<Expression> args = m.getArguments();
-
-            if (args.size() == 1) {
-                // fail(), fail(String), fail(Supplier<String>), fail(Throwable)
-                if (args.get(0) instanceof J.Empty) {
-                    m = m.withTemplate(
-                            template("org.assertj.core.api.Assertions.fail(\"\");")
-                                    .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                    .build(),
-                            m.getCoordinates().replace()
-                    );
-                } else if (args.get(0) instanceof J.Literal) {
-                    m = m.withTemplate(
-                            template("org.assertj.core.api.Assertions.fail(#{});")
-                                    .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                    .build(),
-                            m.getCoordinates().replace(),
-                            args.get(0)
-                    );
-                } else {
-                    m = m.withTemplate(
-                            template("org.assertj.core.api.Assertions.fail(\"\", #{any()});")
-                                    .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                    .build(),
-                            m.getCoordinates().replace(),
-                            args.get(0)
-                    );
-                }
-            } else {
-                // fail(String, Throwable)
-                StringBuilder templateBuilder = new StringBuilder("org.assertj.core.api.Assertions.fail(");
-                for (int i = 0; i < args.size(); i++) {
-                    templateBuilder.append("#{any()}");
-                    if (i < args.size() - 1) {
-                        templateBuilder.append(", ");
-                    }
-                }
-                templateBuilder.append(");");
-
-                m = m.withTemplate(template(templateBuilder.toString())
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        m.getCoordinates().replace(),
-                        args.toArray()
-                );
-            }
-
-            doAfterVisit(new RemoveUnusedImports());
-            doAfterVisit(new UnqualifyMethodInvocations());
-            return m;
-        }
-
-        private static class UnqualifyMethodInvocations extends JavaIsoVisitor<ExecutionContext> {
-            private static final MethodMatcher ASSERTJ_FAIL_MATCHER = new MethodMatcher("org.assertj.core.api.Assertions" + " fail(..)");
-
-            @Override
-            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext executionContext) {
-                if (!ASSERTJ_FAIL_MATCHER.matches(method)) {
-                    return method;
-                }
-
-                StringBuilder templateBuilder = new StringBuilder("fail(");
-                List<Expression> arguments = method.getArguments();
-                for (int i = 0; i < arguments.size(); i++) {
-                    templateBuilder.append("#{any()}");
-                    if (i < arguments.size() - 1) {
-                        templateBuilder.append(", ");
-                    }
-                }
-                templateBuilder.append(");");
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new JUnitFailToAssertJFailVisitor();
+    }
 
-                method = method.withTemplate(template(templateBuilder.toString())
-                                .staticImports("org.assertj.core.api.Assertions" + ".fail")
-                                .javaParser(ASSERTJ_JAVA_PARSER::get)
-                                .build(),
-                        method.getCoordinates().replace(),
-                        arguments.toArray()
-                );
-                maybeAddImport("org.assertj.core.api.Assertions", "fail");
-                return super.visitMethodInvocation(method, executionContext);
-            }
+    public static class JUnitFailToAssertJFailVisitor extends JUnitAssertionsToAssertJ.JUnitAssertionsToAssertJVisitor {
+        public JUnitFailToAssertJFailVisitor() {
+            super("fail");
         }
     }
 }
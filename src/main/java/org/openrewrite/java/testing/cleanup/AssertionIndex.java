@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+
+/**
+ * The methods of a whole source set that assert, directly or through the methods they call, so that a test calling
+ * an assertion helper declared in another file, like a base class, is recognized as asserting.
+ * <p>
+ * Methods are kept as 64-bit hashes of their declaring type and name in an open addressing table, which is a few
+ * bytes per asserting method however many source files were indexed. A hash collision can only make a method look
+ * like it asserts, which leaves a test alone.
+ */
+class AssertionIndex {
+    static final AssertionIndex EMPTY = new AssertionIndex(new long[1], 0);
+
+    /**
+     * Hashes in slots of {@link #table}, with 0 marking an empty slot.
+     */
+    private final long[] table;
+    private final int size;
+
+    private AssertionIndex(long[] table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    static AssertionIndex of(List<? extends SourceFile> sourceFiles, AssertionMatcher assertions) {
+        AssertionSummary.CallGraph callGraph = new AssertionSummary.CallGraph(assertions, EMPTY);
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile instanceof J.CompilationUnit) {
+                callGraph.add((J.CompilationUnit) sourceFile);
+            }
+        }
+        callGraph.propagateAssertions();
+
+        int asserting = 0;
+        for (AssertionSummary.Method method : callGraph.methodsById.values()) {
+            if (method.asserts && method.key != null) {
+                asserting++;
+            }
+        }
+
+        // A power of two at most half full.
+        long[] table = new long[Integer.highestOneBit(Math.max(asserting, 1)) << 2];
+        int size = 0;
+        for (AssertionSummary.Method method : callGraph.methodsById.values()) {
+            if (method.asserts && method.key != null && add(table, hash(method.key))) {
+                size++;
+            }
+        }
+        return new AssertionIndex(table, size);
+    }
+
+    boolean contains(String key) {
+        if (size == 0) {
+            return false;
+        }
+        long hash = hash(key);
+        int mask = table.length - 1;
+        for (int i = slot(hash, mask); table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean add(long[] table, long hash) {
+        int mask = table.length - 1;
+        int i = slot(hash, mask);
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == hash) {
+                return false;
+            }
+        }
+        table[i] = hash;
+        return true;
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * 64-bit FNV-1a, never 0.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
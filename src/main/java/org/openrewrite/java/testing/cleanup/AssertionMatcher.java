@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openrewrite.java.tree.J;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches fully qualified names against a set of assertion packages, classes and {@code Class.method} entries in time
+ * proportional to the length of the name, however many entries there are.
+ */
+class AssertionMatcher {
+    private final Node root = new Node();
+    private final Set<String> entries = new HashSet<>();
+
+    AssertionMatcher(Iterable<String> entries) {
+        for (String entry : entries) {
+            this.entries.add(entry);
+            Node node = root;
+            for (int i = 0; i < entry.length(); i++) {
+                node = node.children.computeIfAbsent(entry.charAt(i), c -> new Node());
+            }
+            node.terminal = true;
+        }
+    }
+
+    /**
+     * @return Whether one of the entries is a prefix of the name.
+     */
+    boolean matchesPrefixOf(String name) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.children.get(name.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the name is one of the entries.
+     */
+    boolean matches(String name) {
+        return entries.contains(name);
+    }
+
+    boolean isAssertion(J.MethodInvocation methodInvocation) {
+        if (methodInvocation.getType() == null) {
+            return false;
+        }
+        String fqt = methodInvocation.getType().getDeclaringType().getFullyQualifiedName();
+        if (matchesPrefixOf(fqt)) {
+            return true;
+        }
+
+        if (methodInvocation.getSelect() instanceof J.MethodInvocation) {
+            J.MethodInvocation selectMethod = (J.MethodInvocation) methodInvocation.getSelect();
+            if (selectMethod.getType() != null) {
+                String select = selectMethod.getType().getDeclaringType().getFullyQualifiedName() + "." + selectMethod.getSimpleName();
+                return matches(select);
+            }
+        }
+        return false;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private boolean terminal;
+    }
+}
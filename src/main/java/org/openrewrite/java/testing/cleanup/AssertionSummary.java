@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.cleanup;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.*;
+
+/**
+ * Whether each method declared in a compilation unit contains an assertion, either anywhere in its body (lambdas,
+ * loops, try blocks and so on included), by calling another method of the same compilation unit that does, or by
+ * calling a method the {@link AssertionIndex} of the whole source set knows to assert.
+ * <p>
+ * The summary is built with a single pass over the compilation unit, after which assertions are propagated from the
+ * methods that contain them to their callers. Methods are identified by declaring type and name, so overloads share a
+ * summary. This errs on the side of leaving a test alone. The methods of anonymous and local classes declared in a
+ * method are part of that method, and those of anonymous classes outside of any method are not callable by name.
+ */
+class AssertionSummary {
+    private final Map<UUID, Method> methodsById;
+
+    private AssertionSummary(Map<UUID, Method> methodsById) {
+        this.methodsById = methodsById;
+    }
+
+    static AssertionSummary of(J.CompilationUnit cu, AssertionMatcher assertions, AssertionIndex index) {
+        CallGraph callGraph = new CallGraph(assertions, index);
+        callGraph.add(cu);
+        callGraph.propagateAssertions();
+        return new AssertionSummary(callGraph.methodsById);
+    }
+
+    /**
+     * @return Whether the method, or any method it calls, contains an assertion.
+     */
+    boolean asserts(J.MethodDeclaration method) {
+        Method m = methodsById.get(method.getId());
+        return m != null && m.asserts;
+    }
+
+    static String key(String declaringType, String name) {
+        return declaringType + "#" + name;
+    }
+
+    static class CallGraph {
+        private final AssertionMatcher assertions;
+        private final AssertionIndex index;
+
+        final Map<UUID, Method> methodsById = new HashMap<>();
+        private final Map<String, List<Method>> callers = new HashMap<>();
+        private final Deque<Method> asserting = new ArrayDeque<>();
+
+        CallGraph(AssertionMatcher assertions, AssertionIndex index) {
+            this.assertions = assertions;
+            this.index = index;
+        }
+
+        void add(J.CompilationUnit cu) {
+            new JavaIsoVisitor<Integer>() {
+                private final Deque<String> classes = new ArrayDeque<>();
+                private final Deque<Method> methods = new ArrayDeque<>();
+
+                @Override
+                public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, Integer p) {
+                    JavaType.FullyQualified type = classDecl.getType();
+                    classes.push(type == null ? "" : type.getFullyQualifiedName());
+                    try {
+                        return super.visitClassDeclaration(classDecl, p);
+                    } finally {
+                        classes.pop();
+                    }
+                }
+
+                @Override
+                public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+                    if (newClass.getBody() == null) {
+                        return super.visitNewClass(newClass, p);
+                    }
+                    classes.push("");
+                    try {
+                        return super.visitNewClass(newClass, p);
+                    } finally {
+                        classes.pop();
+                    }
+                }
+
+                @Override
+                public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, Integer p) {
+                    // the methods of anonymous and local classes belong to the method that declares them
+                    Method m = !methods.isEmpty() ? methods.peek() :
+                            new Method(classes.isEmpty() || classes.peek().isEmpty() ? null :
+                                    key(classes.peek(), method.getSimpleName()));
+                    methodsById.put(method.getId(), m);
+                    methods.push(m);
+                    try {
+                        return super.visitMethodDeclaration(method, p);
+                    } finally {
+                        methods.pop();
+                    }
+                }
+
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+                    Method m = methods.peek();
+                    if (m != null && !m.asserts) {
+                        if (assertions.isAssertion(method)) {
+                            asserts(m);
+                        } else if (method.getType() != null) {
+                            String callee = key(method.getType().getDeclaringType().getFullyQualifiedName(),
+                                    method.getSimpleName());
+                            if (index.contains(callee)) {
+                                asserts(m);
+                            } else {
+                                callers.computeIfAbsent(callee, k -> new ArrayList<>()).add(m);
+                            }
+                        }
+                    }
+                    return super.visitMethodInvocation(method, p);
+                }
+            }.visit(cu, 0);
+        }
+
+        private void asserts(Method m) {
+            m.asserts = true;
+            asserting.add(m);
+        }
+
+        /**
+         * Marks every caller of an asserting method as asserting, over the reversed call edges, so that each edge is
+         * followed at most once.
+         */
+        void propagateAssertions() {
+            while (!asserting.isEmpty()) {
+                Method m = asserting.poll();
+                if (m.key != null) {
+                    for (Method caller : callers.getOrDefault(m.key, Collections.emptyList())) {
+                        if (!caller.asserts) {
+                            asserts(caller);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static class Method {
+        @Nullable
+        final String key;
+
+        boolean asserts;
+
+        private Method(@Nullable String key) {
+            this.key = key;
+        }
+    }
+}
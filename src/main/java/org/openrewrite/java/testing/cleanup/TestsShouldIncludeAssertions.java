@@ -15,17 +15,22 @@
  */
 package org.openrewrite.java.testing.cleanup;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import org.openrewrite.*;
+import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.MeteredRecipe;
+import org.openrewrite.java.testing.internal.RecipeMetrics;
+import org.openrewrite.java.testing.internal.StubParsers;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
 import org.openrewrite.java.tree.J;
-import org.openrewrite.java.tree.Statement;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -34,15 +39,14 @@ import java.util.List;
 @Incubating(since = "1.2.0")
 @Value
 @EqualsAndHashCode(callSuper = true)
-public class TestsShouldIncludeAssertions extends Recipe {
+public class TestsShouldIncludeAssertions extends MeteredRecipe {
     private static final List<String> TEST_ANNOTATIONS = Collections.singletonList("org.junit.jupiter.api.Test");
 
-    private static final ThreadLocal<JavaParser> ASSERTIONS_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion()
-                    .dependsOn(Parser.Input.fromResource("/META-INF/rewrite/JupiterAssertions.java", "---"))
-                    .build());
+    private static final String ASSERTION_SUMMARY = "ASSERTION_SUMMARY";
 
-    private static final List<String> assertions = Arrays.asList(
+    private static final ThreadLocal<JavaParser> ASSERTIONS_PARSER = StubParsers.fromResources(StubParsers.JUPITER_ASSERTIONS);
+
+    private static final List<String> DEFAULT_ASSERTIONS = Arrays.asList(
             "org.assertj.core.api",
             "org.junit.jupiter.api.Assertions",
             "org.hamcrest.MatcherAssert",
@@ -56,6 +60,22 @@ public class TestsShouldIncludeAssertions extends Recipe {
             "org.junit.Assert"// rarely, the test annotation is junit5 but the assert is junit4
     );
 
+    @Option(displayName = "Additional assertions",
+            description = "Packages, classes, or `Class.method` entries whose invocations count as assertions in addition to the built-in ones.",
+            example = "org.acme.testing.CustomAsserts",
+            required = false)
+    @Nullable
+    List<String> additionalAsserts;
+
+    public TestsShouldIncludeAssertions() {
+        this(null);
+    }
+
+    @JsonCreator
+    public TestsShouldIncludeAssertions(@Nullable List<String> additionalAsserts) {
+        this.additionalAsserts = additionalAsserts;
+    }
+
     @Override
     public String getDisplayName() {
         return "Include an assertion in tests";
@@ -66,8 +86,18 @@ public class TestsShouldIncludeAssertions extends Recipe {
         return "For tests not having any assertions, wrap the statements with JUnit Jupiter's `Assertions#assertThrowDoesNotThrow(..)`.";
     }
 
+    private List<String> assertions() {
+        if (additionalAsserts == null || additionalAsserts.isEmpty()) {
+            return DEFAULT_ASSERTIONS;
+        }
+        List<String> assertions = new ArrayList<>(DEFAULT_ASSERTIONS);
+        assertions.addAll(additionalAsserts);
+        return assertions;
+    }
+
     @Override
     public Validated validate() {
+        List<String> assertions = assertions();
         Validated validated = super.validate()
                 .and(Validated.required("assertions", assertions));
         if (validated.isValid()) {
@@ -80,19 +110,37 @@ public class TestsShouldIncludeAssertions extends Recipe {
         return validated;
     }
 
+    /**
+     * Tests often call assertion helpers declared in another file, like a base class, so the whole source set is
+     * indexed for the methods that assert before any test is looked at.
+     */
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.jupiter.api.Test");
+    protected List<SourceFile> visit(List<SourceFile> before, ExecutionContext ctx) {
+        AssertionMatcher assertions = new AssertionMatcher(assertions());
+        TreeVisitor<?, ExecutionContext> visitor = visitor(assertions, AssertionIndex.of(before, assertions));
+        return ListUtils.map(before, sourceFile -> sourceFile instanceof J.CompilationUnit &&
+                ReferencedTypes.of((J.CompilationUnit) sourceFile, ctx).usesAny(TEST_ANNOTATIONS) ?
+                (SourceFile) visitor.visit(sourceFile, ctx) :
+                sourceFile);
     }
 
-    @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new JavaIsoVisitor<ExecutionContext>() {
+    private TreeVisitor<?, ExecutionContext> visitor(AssertionMatcher assertions, AssertionIndex index) {
+        return RecipeMetrics.metered(this, new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
+                getCursor().putMessage(ASSERTION_SUMMARY, AssertionSummary.of(cu, assertions, index));
+                return super.visitCompilationUnit(cu, executionContext);
+            }
+
             @Override
             public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext
                     executionContext) {
-                if ((!methodIsTest(method) || method.getBody() == null)
-                        || methodHasAssertion(method.getBody().getStatements())) {
+                if (!methodIsTest(method) || method.getBody() == null) {
+                    return method;
+                }
+                AssertionSummary summary = getCursor().dropParentUntil(J.CompilationUnit.class::isInstance)
+                        .getMessage(ASSERTION_SUMMARY);
+                if (summary == null || summary.asserts(method)) {
                     return method;
                 }
 
@@ -119,44 +167,6 @@ public class TestsShouldIncludeAssertions extends Recipe {
                 }
                 return false;
             }
-
-            private boolean methodHasAssertion(List<Statement> statements) {
-                for (Statement statement : statements) {
-                    if (statement instanceof J.MethodInvocation) {
-                        J.MethodInvocation methodInvocation = (J.MethodInvocation) statement;
-                        if (isAssertion(methodInvocation)) {
-                            return true;
-                        }
-                    }
-                }
-                return false;
-            }
-
-            private boolean isAssertion(J.MethodInvocation methodInvocation) {
-                if (methodInvocation.getType() == null) {
-                    return false;
-                }
-                String fqt = methodInvocation.getType().getDeclaringType().getFullyQualifiedName();
-                for (String assertionClassOrPackage : assertions) {
-                    if (fqt.startsWith(assertionClassOrPackage)) {
-                        return true;
-                    }
-                }
-
-                if (methodInvocation.getSelect() != null && methodInvocation.getSelect() instanceof J.MethodInvocation
-                        && ((J.MethodInvocation) methodInvocation.getSelect()).getType() != null) {
-                    J.MethodInvocation selectMethod = (J.MethodInvocation) methodInvocation.getSelect();
-                    if (selectMethod.getType() != null) {
-                        String select = selectMethod.getType().getDeclaringType().getFullyQualifiedName() + "." + selectMethod.getSimpleName();
-                        for (String assertMethod : assertions) {
-                            if (select.equals(assertMethod)) {
-                                return true;
-                            }
-                        }
-                    }
-                }
-                return false;
-            }
-        };
+        });
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dependency upgrades that Java recipes found a source file to need, kept in the {@link ExecutionContext} of a run, so
+ * that they can be applied in one pass per build file instead of once for every class that needs them.
+ */
+public final class DependencyEdits {
+    private static final String DEPENDENCY_EDITS = DependencyEdits.class.getName();
+
+    private final Map<Upgrade, Set<Path>> upgrades = new ConcurrentHashMap<>();
+
+    public static DependencyEdits of(ExecutionContext ctx) {
+        return ExecutionContextMessages.computeIfAbsent(ctx, DEPENDENCY_EDITS, DependencyEdits::new);
+    }
+
+    /**
+     * @param sourcePath The source file that needs the upgrade, which decides the build file to apply it to. The build
+     *                   file is that of the innermost module containing the parent directory of the path, so
+     *                   recording a module directory itself hands the upgrade on to the build files of the modules
+     *                   that contain it.
+     */
+    public void upgrade(Path sourcePath, String groupId, String artifactId, String newVersion) {
+        upgrades.compute(new Upgrade(groupId, artifactId, newVersion), (u, sourcePaths) -> {
+            Set<Path> recorded = sourcePaths == null ? ConcurrentHashMap.newKeySet() : sourcePaths;
+            recorded.add(sourcePath);
+            return recorded;
+        });
+    }
+
+    /**
+     * @return A copy of the upgrades recorded so far with the source files that need them.
+     */
+    public Map<Upgrade, Set<Path>> recorded() {
+        Map<Upgrade, Set<Path>> recorded = new LinkedHashMap<>();
+        upgrades.forEach((upgrade, sourcePaths) -> recorded.put(upgrade, new LinkedHashSet<>(sourcePaths)));
+        return recorded;
+    }
+
+    /**
+     * Stops recording the upgrade for source files whose build file it has been applied to. The upgrade stays recorded
+     * for any other source file, whose build file may be visited by a later run sharing the context.
+     */
+    public void applied(Upgrade upgrade, Collection<Path> sourcePaths) {
+        upgrades.computeIfPresent(upgrade, (u, recorded) -> {
+            recorded.removeAll(sourcePaths);
+            return recorded.isEmpty() ? null : recorded;
+        });
+    }
+
+    public boolean isEmpty() {
+        return upgrades.isEmpty();
+    }
+
+    @Value
+    public static class Upgrade {
+        String groupId;
+        String artifactId;
+        String newVersion;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+
+import java.util.function.Supplier;
+
+public final class ExecutionContextMessages {
+    private ExecutionContextMessages() {
+    }
+
+    /**
+     * Shared state kept in an {@link ExecutionContext} may be reached from several threads visiting different source
+     * files, so the first value stored under a key wins.
+     */
+    @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
+    public static <T> T computeIfAbsent(ExecutionContext ctx, String key, Supplier<T> value) {
+        T existing = ctx.getMessage(key);
+        if (existing == null) {
+            synchronized (ctx) {
+                existing = ctx.getMessage(key);
+                if (existing == null) {
+                    existing = value.get();
+                    ctx.putMessage(key, existing);
+                }
+            }
+        }
+        return existing;
+    }
+}
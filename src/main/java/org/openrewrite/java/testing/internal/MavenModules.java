@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The one definition of a module that the recipes and runners of this module share: the directory of a pom. A source
+ * file belongs to the innermost module that contains it, and a pom at the root of the source set, whose module is the
+ * empty path, contains every source file. A source file that no pom contains belongs to no module.
+ */
+public final class MavenModules {
+    private MavenModules() {
+    }
+
+    public static boolean isPom(Path sourcePath) {
+        return sourcePath.getFileName() != null && "pom.xml".equals(sourcePath.getFileName().toString());
+    }
+
+    /**
+     * @return The modules of the poms among the source paths.
+     */
+    public static List<Path> roots(Collection<Path> sourcePaths) {
+        List<Path> moduleRoots = new ArrayList<>();
+        for (Path sourcePath : sourcePaths) {
+            if (isPom(sourcePath)) {
+                Path moduleRoot = sourcePath.getParent();
+                moduleRoots.add(moduleRoot == null ? sourcePath.getFileSystem().getPath("") : moduleRoot);
+            }
+        }
+        return moduleRoots;
+    }
+
+    /**
+     * @return The deepest of the module roots that contains the source path, or null if none does.
+     */
+    @Nullable
+    public static Path module(Collection<Path> moduleRoots, Path sourcePath) {
+        Path module = null;
+        for (Path moduleRoot : moduleRoots) {
+            if (contains(moduleRoot, sourcePath) && (module == null || depth(moduleRoot) > depth(module))) {
+                module = moduleRoot;
+            }
+        }
+        return module;
+    }
+
+    /**
+     * @return The module as a path relative to the project, or {@code .} for the root module.
+     */
+    public static String name(Path moduleRoot) {
+        return depth(moduleRoot) == 0 ? "." : moduleRoot.toString().replace('\\', '/');
+    }
+
+    private static boolean contains(Path moduleRoot, Path sourcePath) {
+        return depth(moduleRoot) == 0 || sourcePath.startsWith(moduleRoot);
+    }
+
+    /**
+     * The empty path of a pom at the root of the source set contains every source.
+     */
+    private static int depth(Path moduleRoot) {
+        return moduleRoot.toString().isEmpty() ? 0 : moduleRoot.getNameCount();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+
+/**
+ * A recipe whose visitor and applicability test are recorded in the {@link RecipeMetrics} of the run. Subclasses
+ * create the visitor and test, and this class wraps them.
+ */
+public abstract class MeteredRecipe extends Recipe {
+
+    @Override
+    protected final TreeVisitor<?, ExecutionContext> getVisitor() {
+        return RecipeMetrics.metered(this, createVisitor());
+    }
+
+    @Nullable
+    @Override
+    protected final TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
+        TreeVisitor<?, ExecutionContext> applicableTest = createApplicableTest();
+        return applicableTest == null ? null : RecipeMetrics.meteredApplicabilityTest(this, applicableTest);
+    }
+
+    /**
+     * @return The visitor that changes one source file at a time. A recipe that overrides
+     * {@link #visit(java.util.List, ExecutionContext)} instead need not create one, and wraps the visitors it builds
+     * there with {@link RecipeMetrics#metered(Recipe, TreeVisitor)} itself.
+     */
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return super.getVisitor();
+    }
+
+    /**
+     * @return A test that a source file has to pass before the visitor runs on it, or null to run the visitor on
+     * every source file.
+     */
+    @Nullable
+    protected TreeVisitor<?, ExecutionContext> createApplicableTest() {
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+
+/**
+ * Delegates the visit of a whole source file to a recipe's visitor or applicability test, recording it in the
+ * {@link RecipeMetrics} of the run.
+ */
+class MeteredVisitor extends JavaVisitor<ExecutionContext> {
+    private final String recipe;
+    private final TreeVisitor<?, ExecutionContext> delegate;
+    private final boolean applicabilityTest;
+
+    MeteredVisitor(String recipe, TreeVisitor<?, ExecutionContext> delegate, boolean applicabilityTest) {
+        this.recipe = recipe;
+        this.delegate = delegate;
+        this.applicabilityTest = applicabilityTest;
+    }
+
+    @Override
+    public J visit(@Nullable Tree tree, ExecutionContext ctx) {
+        RecipeMetrics.Stats stats = RecipeMetrics.of(ctx).getStats(recipe);
+        RecipeMetrics.Stats previous = RecipeMetrics.enter(stats);
+        long start = System.nanoTime();
+        try {
+            J after = (J) delegate.visit(tree, ctx);
+            if (tree instanceof J.CompilationUnit) {
+                if (applicabilityTest) {
+                    stats.hasApplicabilityTest = true;
+                    stats.visited();
+                    if (after == tree) {
+                        stats.skipped();
+                    }
+                } else {
+                    if (!stats.hasApplicabilityTest) {
+                        stats.visited();
+                    }
+                    if (after != tree) {
+                        stats.changed();
+                    }
+                }
+            }
+            return after;
+        } finally {
+            stats.addNanos(System.nanoTime() - start);
+            RecipeMetrics.exit(previous);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-recipe timing and change counts for the recipes of this module, kept in the {@link ExecutionContext} of a run.
+ * The recipes extend {@link MeteredRecipe}, which wraps their visitor and applicability test with
+ * {@link #metered(Recipe, TreeVisitor)} and {@link #meteredApplicabilityTest(Recipe, TreeVisitor)}. After the run, {@link #of(ExecutionContext)} gives access to
+ * the figures and {@link #summary()} renders them as a table.
+ */
+public final class RecipeMetrics {
+    private static final String METRICS = RecipeMetrics.class.getName();
+
+    /**
+     * The statistics of the recipe whose visitor is running on this thread, so that work done on its behalf deeper in
+     * the call stack, like expanding a template, can be attributed to it.
+     */
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public static RecipeMetrics of(ExecutionContext ctx) {
+        return ExecutionContextMessages.computeIfAbsent(ctx, METRICS, RecipeMetrics::new);
+    }
+
+    public static TreeVisitor<?, ExecutionContext> metered(Recipe recipe, TreeVisitor<?, ExecutionContext> visitor) {
+        return new MeteredVisitor(recipe.getName(), visitor, false);
+    }
+
+    public static TreeVisitor<?, ExecutionContext> meteredApplicabilityTest(Recipe recipe, TreeVisitor<?, ExecutionContext> applicabilityTest) {
+        return new MeteredVisitor(recipe.getName(), applicabilityTest, true);
+    }
+
+    /**
+     * @param recipe A recipe name.
+     * @return The statistics recorded for the recipe so far.
+     */
+    public Stats getStats(String recipe) {
+        return stats.computeIfAbsent(recipe, Stats::new);
+    }
+
+    /**
+     * @return The statistics of every recipe that ran, slowest first.
+     */
+    public List<Stats> getAllStats() {
+        List<Stats> all = new ArrayList<>(stats.values());
+        all.sort(Comparator.comparingLong(Stats::getNanos).reversed().thenComparing(Stats::getRecipe));
+        return Collections.unmodifiableList(all);
+    }
+
+    public String summary() {
+        List<Stats> all = getAllStats();
+        int width = "recipe".length();
+        for (Stats s : all) {
+            width = Math.max(width, s.getRecipe().length());
+        }
+        String row = "%-" + width + "s %12s %10s %10s %10s %12s%n";
+        StringBuilder summary = new StringBuilder(String.format(row,
+                "recipe", "wall ms", "visited", "skipped", "changed", "templates"));
+        for (Stats s : all) {
+            summary.append(String.format(row, s.getRecipe(), TimeUnit.NANOSECONDS.toMillis(s.getNanos()),
+                    s.getVisited(), s.getSkipped(), s.getChanged(), s.getTemplateExpansions()));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    /**
+     * Attributes a template expansion to the recipe whose visitor is running on this thread, if any.
+     */
+    static void templateExpanded() {
+        Stats current = CURRENT.get();
+        if (current != null) {
+            current.templateExpansions.increment();
+        }
+    }
+
+    @Nullable
+    static Stats enter(Stats stats) {
+        Stats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    static void exit(@Nullable Stats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static class Stats {
+        private final String recipe;
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder visited = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder changed = new LongAdder();
+        private final LongAdder templateExpansions = new LongAdder();
+
+        /**
+         * Set once the recipe's applicability test has run, after which it alone counts visited compilation units.
+         */
+        volatile boolean hasApplicabilityTest;
+
+        private Stats(String recipe) {
+            this.recipe = recipe;
+        }
+
+        public String getRecipe() {
+            return recipe;
+        }
+
+        void addNanos(long elapsed) {
+            nanos.add(elapsed);
+        }
+
+        void visited() {
+            visited.increment();
+        }
+
+        void skipped() {
+            skipped.increment();
+        }
+
+        void changed() {
+            changed.increment();
+        }
+
+        /**
+         * @return Wall time spent in the recipe's applicability test and visitor, including visits they schedule.
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return Compilation units the recipe looked at.
+         */
+        public long getVisited() {
+            return visited.sum();
+        }
+
+        /**
+         * @return Compilation units the applicability test ruled out.
+         */
+        public long getSkipped() {
+            return skipped.sum();
+        }
+
+        /**
+         * @return Compilation units the visitor changed.
+         */
+        public long getChanged() {
+            return changed.sum();
+        }
+
+        /**
+         * @return Templates expanded against the stub parsers of {@link StubParsers}.
+         */
+        public long getTemplateExpansions() {
+            return templateExpansions.sum();
+        }
+    }
+}
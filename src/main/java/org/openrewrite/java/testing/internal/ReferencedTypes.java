@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fully qualified names of the types a compilation unit refers to, collected in a single traversal. The index is
+ * cached in the {@link ExecutionContext} against the compilation unit it was built from, so every applicability test
+ * of a composite recipe that looks at the same version of a compilation unit shares it.
+ */
+public final class ReferencedTypes {
+    private static final String CACHE = ReferencedTypes.class.getName() + ".CACHE";
+    private static final int PRUNE_INTERVAL = 1024;
+
+    private final Set<String> types;
+    private final Set<String> packages;
+
+    private ReferencedTypes(Set<String> types, Set<String> packages) {
+        this.types = types;
+        this.packages = packages;
+    }
+
+    public static ReferencedTypes of(J.CompilationUnit cu, ExecutionContext ctx) {
+        Map<UUID, Entry> cache = cache(ctx);
+        Entry entry = cache.get(cu.getId());
+        if (entry != null && entry.cu.get() == cu) {
+            return entry.referencedTypes;
+        }
+        ReferencedTypes referencedTypes = build(cu);
+        cache.put(cu.getId(), new Entry(cu, referencedTypes));
+        if (cache.size() % PRUNE_INTERVAL == 0) {
+            // A long-lived context, like one shared by the batches of a streaming run, would otherwise hold on to an
+            // index for every compilation unit it has ever seen.
+            cache.values().removeIf(e -> e.cu.get() == null);
+        }
+        return referencedTypes;
+    }
+
+    /**
+     * @param fullyQualifiedTypeName A fully qualified type name, or a package name followed by {@code .*} to match any
+     *                               type in that package or its subpackages.
+     * @return Whether the compilation unit refers to the type.
+     */
+    public boolean uses(String fullyQualifiedTypeName) {
+        if (fullyQualifiedTypeName.endsWith(".*")) {
+            String packageName = fullyQualifiedTypeName.substring(0, fullyQualifiedTypeName.length() - 2);
+            if (packages.contains(packageName)) {
+                return true;
+            }
+            for (String p : packages) {
+                if (p.startsWith(packageName + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return types.contains(fullyQualifiedTypeName);
+    }
+
+    public boolean usesAny(Collection<String> fullyQualifiedTypeNames) {
+        for (String fullyQualifiedTypeName : fullyQualifiedTypeNames) {
+            if (uses(fullyQualifiedTypeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<UUID, Entry> cache(ExecutionContext ctx) {
+        return ExecutionContextMessages.computeIfAbsent(ctx, CACHE, ConcurrentHashMap::new);
+    }
+
+    private static ReferencedTypes build(J.CompilationUnit cu) {
+        Set<String> types = new HashSet<>();
+        Set<String> packages = new HashSet<>();
+        new JavaIsoVisitor<Integer>() {
+            private final Set<JavaType> parameterized = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            @Override
+            public J.Import visitImport(J.Import _import, Integer p) {
+                packages.add(_import.getPackageName());
+                if (!"*".equals(_import.getClassName())) {
+                    types.add(_import.getPackageName() + "." + _import.getClassName());
+                }
+                return super.visitImport(_import, p);
+            }
+
+            @Override
+            public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                record(identifier.getType());
+                return super.visitIdentifier(identifier, p);
+            }
+
+            @Override
+            public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, Integer p) {
+                record(fieldAccess.getType());
+                return super.visitFieldAccess(fieldAccess, p);
+            }
+
+            @Override
+            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+                if (method.getType() != null) {
+                    record(method.getType().getDeclaringType());
+                }
+                return super.visitMethodInvocation(method, p);
+            }
+
+            @Override
+            public J.NewClass visitNewClass(J.NewClass newClass, Integer p) {
+                record(newClass.getType());
+                return super.visitNewClass(newClass, p);
+            }
+
+            private void record(@Nullable JavaType type) {
+                if (type instanceof JavaType.Array) {
+                    record(((JavaType.Array) type).getElemType());
+                    return;
+                }
+                JavaType.FullyQualified fq = TypeUtils.asFullyQualified(type);
+                if (fq == null) {
+                    return;
+                }
+                if (types.add(fq.getFullyQualifiedName())) {
+                    packages.add(fq.getPackageName());
+                }
+                // List<Bar> after List<Foo> still refers to Bar, so every parameterization is followed once
+                if (fq instanceof JavaType.Parameterized && parameterized.add(fq)) {
+                    for (JavaType typeParameter : ((JavaType.Parameterized) fq).getTypeParameters()) {
+                        record(typeParameter);
+                    }
+                }
+            }
+        }.visit(cu, 0);
+        return new ReferencedTypes(types, packages);
+    }
+
+    private static class Entry {
+        private final WeakReference<J.CompilationUnit> cu;
+        private final ReferencedTypes referencedTypes;
+
+        private Entry(J.CompilationUnit cu, ReferencedTypes referencedTypes) {
+            this.cu = new WeakReference<>(cu);
+            this.referencedTypes = referencedTypes;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.util.Collection;
+
+/**
+ * A recipe whose applicability test is derived from the types it requires, so that the test and the prefilter of the
+ * runners never disagree about which files the recipe can change.
+ */
+public abstract class ReferencedTypesRecipe extends MeteredRecipe implements RequiresReferencedTypes {
+
+    /**
+     * @return A test that passes a compilation unit referring to one of the required types, or null for a recipe that
+     * only changes files other than Java sources.
+     */
+    @Nullable
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createApplicableTest() {
+        Collection<String> requiredTypes = getRequiredTypes();
+        return requiredTypes.isEmpty() ? null : new UsesReferencedType(requiredTypes);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collection;
+
+/**
+ * A recipe that only changes a Java source file which refers to one of a set of types. The runners skip a Java source
+ * file that does not mention the package of any of them before parsing it, and {@link ReferencedTypesRecipe} builds
+ * the recipe's applicability test from the same types.
+ */
+public interface RequiresReferencedTypes {
+
+    /**
+     * @return Fully qualified type names, or package names followed by {@code .*}. Empty for a recipe that only changes
+     * files other than Java sources.
+     */
+    @JsonIgnore
+    Collection<String> getRequiredTypes();
+
+    /**
+     * @return Whether the recipe also changes a class that refers to one of the types only through a supertype declared
+     * in another file, like a test calling the inherited {@code assertEquals} of a base class that extends
+     * {@code Assertions}, so that its source file need not mention the type's package.
+     */
+    @JsonIgnore
+    default boolean isInheritable() {
+        return false;
+    }
+}
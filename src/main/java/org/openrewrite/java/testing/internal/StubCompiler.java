@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.Parser;
+import org.openrewrite.internal.StringUtils;
+import org.openrewrite.internal.lang.Nullable;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the sections of a {@code ---} separated stub resource into a directory with a class file per type. javac
+ * completes a type from the classpath only when a template refers to it, so a parser whose templates use
+ * {@code Assertions.assertThat} and {@code within} does not hold the hundreds of {@code AbstractAssert} subclasses it
+ * never reaches. This is how the stubs are loaded when the build's pre-compiled jars are not on the classpath.
+ * <p>
+ * javac is told that every section may declare any public type, so unlike the build, which has to write each section
+ * to a file named after its type, this needs no parsing of the sections.
+ */
+final class StubCompiler {
+    private StubCompiler() {
+    }
+
+    /**
+     * @return A directory of the compiled sections, or null if no system Java compiler is available or the sections do
+     * not compile.
+     */
+    @Nullable
+    static Path compile(String name, List<Parser.Input> inputs) {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            return null;
+        }
+
+        List<JavaFileObject> compilationUnits = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            String source = StringUtils.readFully(inputs.get(i).getSource());
+            compilationUnits.add(new SimpleJavaFileObject(URI.create("string:///" + name + "/Section" + i +
+                    JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+
+                @Override
+                public boolean isNameCompatible(String simpleName, Kind kind) {
+                    return kind == Kind.SOURCE;
+                }
+            });
+        }
+
+        try {
+            Path classes = Files.createTempDirectory(name);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(classes)));
+            Boolean compiled = javac.getTask(null, null, diagnostic -> {
+                    }, Arrays.asList("-d", classes.toString(), "-proc:none", "-nowarn"), null, compilationUnits)
+                    .call();
+            return Boolean.TRUE.equals(compiled) ? classes : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.Parser;
+import org.openrewrite.java.JavaParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of the {@link JavaParser}s used to type-attribute recipe templates.
+ * <p>
+ * Parsers are keyed by the set of stubs they depend on, so every recipe that asks for the same stubs shares one
+ * parser per thread rather than building and warming up its own. Stub resources are read and split once per process.
+ * <p>
+ * The build pre-compiles the stub resources of this module into a jar each under {@code META-INF/rewrite/classpath}.
+ * Parsers put those jars on their classpath, so javac loads only the stub types a template refers to from class files
+ * instead of attributing every stub source on each thread's first template. A resource without a pre-compiled jar, as
+ * when running from an IDE that does not delegate to the build, is compiled once per process by {@link StubCompiler}, and
+ * only falls back to its sources when that fails.
+ */
+public final class StubParsers {
+    public static final String ASSERTJ_ASSERTIONS = "/META-INF/rewrite/AssertJAssertions.java";
+    public static final String JUPITER_ASSERTIONS = "/META-INF/rewrite/JupiterAssertions.java";
+    public static final String PARAMETERIZED = "/META-INF/rewrite/Parameterized.java";
+
+    private static final String RESOURCE_DELIMITER = "---";
+    private static final String COMPILED_RESOURCES = "/META-INF/rewrite/classpath/";
+
+    private static final Map<String, List<Parser.Input>> RESOURCE_INPUTS = new ConcurrentHashMap<>();
+    private static final Map<String, Optional<Path>> RESOURCE_CLASSPATHS = new ConcurrentHashMap<>();
+    private static final Map<List<List<String>>, ThreadLocal<JavaParser>> PARSERS = new ConcurrentHashMap<>();
+
+    private StubParsers() {
+    }
+
+    /**
+     * @param resources Classpath resources containing {@code ---} separated stub sources.
+     * @return A thread local parser that depends on the given resources.
+     */
+    public static ThreadLocal<JavaParser> fromResources(String... resources) {
+        return builder().resources(resources).build();
+    }
+
+    /**
+     * @param sources Inline stub sources.
+     * @return A thread local parser that depends on the given sources.
+     */
+    public static ThreadLocal<JavaParser> fromSources(String... sources) {
+        return builder().sources(sources).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static List<Parser.Input> resourceInputs(String resource) {
+        return RESOURCE_INPUTS.computeIfAbsent(resource, r -> Collections.unmodifiableList(
+                Parser.Input.fromResource(r, RESOURCE_DELIMITER)));
+    }
+
+    /**
+     * @return The compiled classes of a stub resource, prepared once per process.
+     */
+    static Optional<Path> resourceClasspath(String resource) {
+        return RESOURCE_CLASSPATHS.computeIfAbsent(resource, r -> {
+            String name = r.substring(r.lastIndexOf('/') + 1, r.lastIndexOf('.'));
+            try (InputStream compiled = StubParsers.class.getResourceAsStream(COMPILED_RESOURCES + name + ".jar")) {
+                if (compiled == null) {
+                    return Optional.ofNullable(StubCompiler.compile(name, resourceInputs(r)));
+                }
+                Path jar = Files.createTempFile(name, ".jar");
+                jar.toFile().deleteOnExit();
+                Files.copy(compiled, jar, StandardCopyOption.REPLACE_EXISTING);
+                return Optional.of(jar);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static class Builder {
+        private final List<String> resources = new ArrayList<>();
+        private final List<String> sources = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder resources(String... resources) {
+            this.resources.addAll(Arrays.asList(resources));
+            return this;
+        }
+
+        public Builder sources(String... sources) {
+            this.sources.addAll(Arrays.asList(sources));
+            return this;
+        }
+
+        public ThreadLocal<JavaParser> build() {
+            List<String> resources = Collections.unmodifiableList(new ArrayList<>(this.resources));
+            List<String> sources = Collections.unmodifiableList(new ArrayList<>(this.sources));
+            return PARSERS.computeIfAbsent(Arrays.asList(resources, sources), key -> new TemplateParser(resources, sources));
+        }
+    }
+
+    /**
+     * Templates acquire their parser once per expansion, which is where expansions are counted for
+     * {@link RecipeMetrics}.
+     */
+    private static class TemplateParser extends ThreadLocal<JavaParser> {
+        private final List<String> resources;
+        private final List<String> sources;
+
+        private TemplateParser(List<String> resources, List<String> sources) {
+            this.resources = resources;
+            this.sources = sources;
+        }
+
+        @Override
+        protected JavaParser initialValue() {
+            List<Path> classpath = new ArrayList<>();
+            List<Parser.Input> dependsOn = new ArrayList<>();
+            for (String resource : resources) {
+                Optional<Path> compiled = resourceClasspath(resource);
+                if (compiled.isPresent()) {
+                    classpath.add(compiled.get());
+                } else {
+                    dependsOn.addAll(resourceInputs(resource));
+                }
+            }
+            for (String source : sources) {
+                dependsOn.add(Parser.Input.fromString(source));
+            }
+            return JavaParser.fromJavaVersion().classpath(classpath).dependsOn(dependsOn).build();
+        }
+
+        @Override
+        public JavaParser get() {
+            RecipeMetrics.templateExpanded();
+            return super.get();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.marker.JavaSearchResult;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.marker.Marker;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * An applicability test that marks a compilation unit referring to any of the given types, answered from the
+ * {@link ReferencedTypes} index instead of a scan of the tree per type.
+ */
+public class UsesReferencedType extends JavaIsoVisitor<ExecutionContext> {
+    private final Marker FOUND_TYPE = new JavaSearchResult(randomId(), null, null);
+    private final Collection<String> fullyQualifiedTypeNames;
+
+    /**
+     * @param fullyQualifiedTypeNames Fully qualified type names, or package names followed by {@code .*}.
+     */
+    public UsesReferencedType(String... fullyQualifiedTypeNames) {
+        this(Arrays.asList(fullyQualifiedTypeNames));
+    }
+
+    public UsesReferencedType(Collection<String> fullyQualifiedTypeNames) {
+        this.fullyQualifiedTypeNames = fullyQualifiedTypeNames;
+    }
+
+    @Override
+    public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+        if (ReferencedTypes.of(cu, ctx).usesAny(fullyQualifiedTypeNames)) {
+            return cu.withMarkers(cu.getMarkers().addIfAbsent(FOUND_TYPE));
+        }
+        return cu;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.java.testing.internal.DependencyEdits;
+import org.openrewrite.java.testing.internal.MavenModules;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.maven.UpgradeDependencyVersion;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Applies the dependency upgrades recorded in {@link DependencyEdits} by the recipes that ran before it. Each upgrade
+ * runs once, over the poms of just the modules whose sources need it, however many classes asked for it. A module pom
+ * that does not declare the dependency itself, because a parent manages its version, falls back to the poms of the
+ * modules that contain it.
+ * <p>
+ * Only the upgrades of sources whose module pom is among the source files are applied. The others stay recorded for a
+ * later run that shares the {@link ExecutionContext}, like the pom run of {@code StreamingRecipeRunner} or another
+ * partition of {@code ParallelRecipeRunner}.
+ */
+public class ApplyDependencyEdits extends ReferencedTypesRecipe {
+    private static final Path ROOT = Paths.get("");
+
+    @Override
+    public String getDisplayName() {
+        return "Apply recorded dependency upgrades";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Upgrade the dependencies that earlier recipes of the run found to be needed, once per pom.";
+    }
+
+    /**
+     * Only changes poms.
+     */
+    @Override
+    public Collection<String> getRequiredTypes() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected List<SourceFile> visit(List<SourceFile> before, ExecutionContext ctx) {
+        DependencyEdits edits = DependencyEdits.of(ctx);
+        if (edits.isEmpty()) {
+            return before;
+        }
+
+        Map<Path, SourceFile> pomsByModule = new HashMap<>();
+        for (SourceFile sourceFile : before) {
+            Path sourcePath = sourceFile.getSourcePath();
+            if (MavenModules.isPom(sourcePath)) {
+                pomsByModule.put(sourcePath.getParent() == null ? ROOT : sourcePath.getParent(), sourceFile);
+            }
+        }
+        if (pomsByModule.isEmpty()) {
+            return before;
+        }
+
+        // The latest version of each pom that changed, by the pom it was given as.
+        Map<SourceFile, SourceFile> after = new IdentityHashMap<>();
+        for (Map.Entry<DependencyEdits.Upgrade, Set<Path>> upgrade : edits.recorded().entrySet()) {
+            DependencyEdits.Upgrade u = upgrade.getKey();
+            Set<Path> modules = new LinkedHashSet<>();
+            List<Path> applied = new ArrayList<>();
+            for (Path sourcePath : upgrade.getValue()) {
+                Path dir = sourcePath.getParent();
+                Path module = MavenModules.module(pomsByModule.keySet(), dir == null ? ROOT : dir);
+                if (module != null) {
+                    modules.add(module);
+                    applied.add(sourcePath);
+                }
+            }
+            if (modules.isEmpty()) {
+                continue;
+            }
+            edits.applied(u, applied);
+
+            Set<Path> changed = upgrade(u, modules, pomsByModule, after, ctx);
+            Set<Path> ancestors = new LinkedHashSet<>();
+            for (Path module : modules) {
+                if (changed.contains(module)) {
+                    continue;
+                }
+                List<Path> moduleAncestors = ancestors(pomsByModule, module);
+                if (moduleAncestors.isEmpty() && !module.equals(ROOT)) {
+                    // The parent poms may be visited by a later run.
+                    edits.upgrade(module, u.getGroupId(), u.getArtifactId(), u.getNewVersion());
+                }
+                ancestors.addAll(moduleAncestors);
+            }
+            upgrade(u, ancestors, pomsByModule, after, ctx);
+        }
+
+        return after.isEmpty() ? before : ListUtils.map(before, sourceFile -> after.getOrDefault(sourceFile, sourceFile));
+    }
+
+    /**
+     * @return The modules whose pom the upgrade changed.
+     */
+    private static Set<Path> upgrade(DependencyEdits.Upgrade u, Collection<Path> modules, Map<Path, SourceFile> pomsByModule,
+                                     Map<SourceFile, SourceFile> after, ExecutionContext ctx) {
+        Map<SourceFile, SourceFile> originalsByCurrent = new IdentityHashMap<>();
+        Map<SourceFile, Path> modulesByOriginal = new IdentityHashMap<>();
+        for (Path module : modules) {
+            SourceFile pom = pomsByModule.get(module);
+            originalsByCurrent.put(after.getOrDefault(pom, pom), pom);
+            modulesByOriginal.put(pom, module);
+        }
+        if (originalsByCurrent.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<Path> changed = new HashSet<>();
+        List<Result> results = new UpgradeDependencyVersion(u.getGroupId(), u.getArtifactId(), u.getNewVersion(),
+                null, false).run(new ArrayList<>(originalsByCurrent.keySet()), ctx);
+        for (Result result : results) {
+            SourceFile original = originalsByCurrent.get(result.getBefore());
+            if (original != null && result.getAfter() != null) {
+                after.put(original, result.getAfter());
+                changed.add(modulesByOriginal.get(original));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return The modules among the poms that contain the module, innermost first.
+     */
+    private static List<Path> ancestors(Map<Path, SourceFile> pomsByModule, Path module) {
+        List<Path> ancestors = new ArrayList<>();
+        if (module.equals(ROOT)) {
+            return ancestors;
+        }
+        for (Path dir = module.getParent(); dir != null; dir = dir.getParent()) {
+            if (pomsByModule.containsKey(dir)) {
+                ancestors.add(dir);
+            }
+        }
+        if (pomsByModule.containsKey(ROOT)) {
+            ancestors.add(ROOT);
+        }
+        return ancestors;
+    }
+}
@@ -16,21 +16,24 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.ChangeMethodTargetToStatic;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class AssertToAssertions extends Recipe {
+public class AssertToAssertions extends ReferencedTypesRecipe {
 
     @Override
     public String getDisplayName() {
@@ -43,27 +46,57 @@ public class AssertToAssertions extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.Assert");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.Assert");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    public boolean isInheritable() {
+        return true;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new AssertToAssertionsVisitor();
     }
 
     public static class AssertToAssertionsVisitor extends JavaIsoVisitor<ExecutionContext> {
 
         private static final JavaType ASSERTION_TYPE = JavaType.buildType("org.junit.Assert");
+        private static final String ASSERT_METHOD_NAMES = "ASSERT_METHOD_NAMES";
+
+        @Override
+        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            J.CompilationUnit c = super.visitCompilationUnit(cu, ctx);
+            Set<String> assertMethodNames = getCursor().pollMessage(ASSERT_METHOD_NAMES);
+            if (assertMethodNames != null) {
+                // One retargeting pass per compilation unit rather than one per invocation. assertThat is left behind
+                // for UseHamcrestAssertThat, so a wildcard is only safe when the compilation unit does not call it.
+                if (assertMethodNames.contains("assertThat")) {
+                    for (String assertMethodName : assertMethodNames) {
+                        if (!assertMethodName.equals("assertThat")) {
+                            doAfterVisit(new ChangeMethodTargetToStatic("org.junit.Assert " + assertMethodName + "(..)",
+                                    "org.junit.jupiter.api.Assertions", null));
+                        }
+                    }
+                } else {
+                    doAfterVisit(new ChangeMethodTargetToStatic("org.junit.Assert *(..)",
+                            "org.junit.jupiter.api.Assertions", null));
+                }
+            }
+            return c;
+        }
 
         @Override
         public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
             J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
             if (!isJunitAssertMethod(m)) {
+                if (isJunitAssertThat(m)) {
+                    assertMethodNames().add(m.getSimpleName());
+                }
                 return m;
             }
-            doAfterVisit(new ChangeMethodTargetToStatic("org.junit.Assert " + m.getSimpleName() + "(..)",
-                    "org.junit.jupiter.api.Assertions", null));
+            assertMethodNames().add(m.getSimpleName());
             List<Expression> args = m.getArguments();
             Expression firstArg = args.get(0);
             // Suppress arg-switching for Assertions.assertEquals(String, String)
@@ -90,11 +123,21 @@ public class AssertToAssertions extends Recipe {
             return m;
         }
 
+        private Set<String> assertMethodNames() {
+            return getCursor().dropParentUntil(J.CompilationUnit.class::isInstance)
+                    .computeMessageIfAbsent(ASSERT_METHOD_NAMES, v -> new LinkedHashSet<String>());
+        }
+
         private boolean isStringArgument(Expression arg) {
             JavaType expressionType = arg instanceof J.MethodInvocation ? ((J.MethodInvocation) arg).getReturnType() : arg.getType();
             return TypeUtils.isString(expressionType);
         }
 
+        private static boolean isJunitAssertThat(J.MethodInvocation method) {
+            return method.getSimpleName().equals("assertThat") && method.getType() != null &&
+                    TypeUtils.isAssignableTo(ASSERTION_TYPE, method.getType().getDeclaringType());
+        }
+
         private static boolean isJunitAssertMethod(J.MethodInvocation method) {
             if (method.getType() != null && TypeUtils.isAssignableTo(ASSERTION_TYPE, method.getType().getDeclaringType())) {
                 return !method.getSimpleName().equals("assertThat");
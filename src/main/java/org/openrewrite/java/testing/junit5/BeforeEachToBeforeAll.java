@@ -0,0 +1,374 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
+import org.openrewrite.java.tree.Expression;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+
+/**
+ * Runs the {@code @BeforeEach} method of a test class once per class, as a {@code @BeforeAll} method of a class with
+ * a {@code PER_CLASS} test instance lifecycle, when all it does is build fixtures the tests only read.
+ * <p>
+ * Since every test then shares one instance, a class is only changed when:
+ * <ul>
+ *     <li>It is a top-level class that neither extends another class, nor is abstract, nor already declares a
+ *     {@code @TestInstance} lifecycle, and it has no {@code @AfterEach} method.</li>
+ *     <li>Its only {@code @BeforeEach} method takes no parameters, like a {@code @TempDir} or {@code TestInfo}
+ *     that differs from test to test, and does nothing but assign the instance fields of the class, which have no
+ *     initializers of their own, each once, and none of them a {@code mock(..)} or {@code spy(..)}.</li>
+ *     <li>No other method assigns those fields, passes them anywhere, stubs them with {@code when(..)},
+ *     {@code given(..)} or {@code doReturn(..)}, or calls a method on them whose name suggests it changes the fixture,
+ *     like {@code set..}, {@code add..}, {@code next..} or {@code close}, also further down a chain of calls like
+ *     {@code fixture.getItems().add(item)}.</li>
+ * </ul>
+ * This recipe is not part of the JUnit 5 migration, since a fixture that tests change in some other way would then
+ * leak from one test into the next.
+ */
+public class BeforeEachToBeforeAll extends ReferencedTypesRecipe {
+    private static final String BEFORE_EACH = "org.junit.jupiter.api.BeforeEach";
+    private static final String AFTER_EACH = "org.junit.jupiter.api.AfterEach";
+    private static final String TEST_INSTANCE = "org.junit.jupiter.api.TestInstance";
+
+    private static final String[] MUTATOR_PREFIXES = {
+            "set", "add", "put", "remove", "clear", "reset", "register", "configure", "enable", "disable",
+            "close", "shutdown", "stop", "start", "insert", "update", "delete", "execute", "save", "persist",
+            "write", "push", "pop", "offer", "poll", "drain", "truncate", "drop", "create", "merge", "append",
+            "increment", "decrement", "next", "take"
+    };
+
+    private static final Set<String> TEST_DOUBLES = new HashSet<>(Arrays.asList("mock", "spy"));
+
+    private static final Set<String> STUBBINGS = new HashSet<>(Arrays.asList(
+            "when", "given", "willReturn", "doReturn", "doThrow", "doAnswer", "doNothing", "doCallRealMethod"));
+
+    private static final ThreadLocal<JavaParser> LIFECYCLE_PARSER = StubParsers.fromSources(
+            "package org.junit.jupiter.api;\n" +
+                    "public @interface BeforeAll {}",
+            "package org.junit.jupiter.api;\n" +
+                    "public @interface TestInstance {\n" +
+                    "  enum Lifecycle { PER_CLASS, PER_METHOD }\n" +
+                    "  Lifecycle value();\n" +
+                    "}"
+    );
+
+    @Override
+    public String getDisplayName() {
+        return "Build read-only fixtures once per test class";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Turns a `@BeforeEach` method that only builds fixtures the tests never change into a `@BeforeAll` method " +
+                "of a `@TestInstance(Lifecycle.PER_CLASS)` class, so that expensive setup runs once per class instead of once per test. " +
+                "Classes with an `@AfterEach` method are left alone, since it may reset or release the fixture after every test.";
+    }
+
+    @Override
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList(BEFORE_EACH);
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new BeforeEachToBeforeAllVisitor();
+    }
+
+    public static class BeforeEachToBeforeAllVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+            J.MethodDeclaration setUp = readOnlyFixtureSetUp(cd, getCursor());
+            if (setUp == null) {
+                return cd;
+            }
+
+            cd = cd.withBody(cd.getBody().withStatements(ListUtils.map(cd.getBody().getStatements(), statement -> {
+                if (statement != setUp) {
+                    return statement;
+                }
+                J.MethodDeclaration md = setUp;
+                for (J.Annotation annotation : setUp.getLeadingAnnotations()) {
+                    if (TypeUtils.isOfClassType(annotation.getType(), BEFORE_EACH)) {
+                        md = md.withTemplate(template("@BeforeAll")
+                                        .imports("org.junit.jupiter.api.BeforeAll")
+                                        .javaParser(LIFECYCLE_PARSER::get)
+                                        .build(),
+                                annotation.getCoordinates().replace());
+                    }
+                }
+                return md;
+            })));
+            cd = cd.withTemplate(template("@TestInstance(TestInstance.Lifecycle.PER_CLASS)")
+                            .imports(TEST_INSTANCE)
+                            .javaParser(LIFECYCLE_PARSER::get)
+                            .build(),
+                    cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+
+            maybeAddImport("org.junit.jupiter.api.BeforeAll");
+            maybeAddImport(TEST_INSTANCE);
+            maybeRemoveImport(BEFORE_EACH);
+            return cd;
+        }
+
+        /**
+         * @return The class's {@code @BeforeEach} method if it only builds fixtures that can be shared by its tests.
+         */
+        @Nullable
+        private static J.MethodDeclaration readOnlyFixtureSetUp(J.ClassDeclaration cd, Cursor cursor) {
+            if (!(cursor.dropParentUntil(J.class::isInstance).getValue() instanceof J.CompilationUnit) ||
+                    cd.getExtends() != null ||
+                    hasAnnotation(cd.getLeadingAnnotations(), TEST_INSTANCE)) {
+                return null;
+            }
+            for (J.Modifier modifier : cd.getModifiers()) {
+                if (modifier.getType() == J.Modifier.Type.Abstract) {
+                    return null;
+                }
+            }
+
+            Set<String> fields = new HashSet<>();
+            J.MethodDeclaration setUp = null;
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (statement instanceof J.VariableDeclarations) {
+                    J.VariableDeclarations field = (J.VariableDeclarations) statement;
+                    if (isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    for (J.VariableDeclarations.NamedVariable variable : field.getVariables()) {
+                        if (variable.getInitializer() != null) {
+                            return null;
+                        }
+                        fields.add(variable.getSimpleName());
+                    }
+                } else if (statement instanceof J.MethodDeclaration) {
+                    J.MethodDeclaration method = (J.MethodDeclaration) statement;
+                    if (hasAnnotation(method.getLeadingAnnotations(), AFTER_EACH)) {
+                        return null;
+                    }
+                    if (hasAnnotation(method.getLeadingAnnotations(), BEFORE_EACH)) {
+                        if (setUp != null || method.getBody() == null || isStatic(method.getModifiers()) ||
+                                hasParameters(method)) {
+                            return null;
+                        }
+                        setUp = method;
+                    }
+                }
+            }
+            if (setUp == null || fields.isEmpty() || !fields.equals(assignedOnce(setUp, fields))) {
+                return null;
+            }
+
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (statement != setUp && !onlyReads(statement, fields)) {
+                    return null;
+                }
+            }
+            return setUp;
+        }
+
+        /**
+         * @return The fields the method assigns, or null if it does anything else or assigns a field twice.
+         */
+        @Nullable
+        private static Set<String> assignedOnce(J.MethodDeclaration setUp, Set<String> fields) {
+            Set<String> assigned = new HashSet<>();
+            //noinspection ConstantConditions
+            for (Statement statement : setUp.getBody().getStatements()) {
+                if (!(statement instanceof J.Assignment)) {
+                    return null;
+                }
+                J.Assignment assignment = (J.Assignment) statement;
+                String field = fieldName(assignment.getVariable());
+                if (field == null || !fields.contains(field) || !assigned.add(field) ||
+                        isTestDouble(assignment.getAssignment())) {
+                    return null;
+                }
+            }
+            return assigned;
+        }
+
+        @Nullable
+        private static String fieldName(Expression variable) {
+            if (variable instanceof J.Identifier) {
+                return ((J.Identifier) variable).getSimpleName();
+            }
+            if (variable instanceof J.FieldAccess && isThis(((J.FieldAccess) variable).getTarget())) {
+                return ((J.FieldAccess) variable).getSimpleName();
+            }
+            return null;
+        }
+
+        /**
+         * @return Whether every use of the fields in the statement is as the target of a method call that does not look
+         * like it changes the fixture, and the statement declares nothing that shadows them.
+         */
+        private static boolean onlyReads(Statement statement, Set<String> fields) {
+            boolean[] changes = new boolean[1];
+            new JavaIsoVisitor<Integer>() {
+                @Override
+                public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, Integer p) {
+                    if (fields.contains(variable.getSimpleName()) && !(statement instanceof J.VariableDeclarations)) {
+                        changes[0] = true;
+                    }
+                    return super.visitVariable(variable, p);
+                }
+
+                @Override
+                public J.Identifier visitIdentifier(J.Identifier identifier, Integer p) {
+                    if (fields.contains(identifier.getSimpleName()) &&
+                            (!isRead(identifier, getCursor()) || isStubbed(getCursor()))) {
+                        changes[0] = true;
+                    }
+                    return super.visitIdentifier(identifier, p);
+                }
+            }.visit(statement, 0);
+            return !changes[0];
+        }
+
+        private static boolean isRead(J.Identifier identifier, Cursor cursor) {
+            J reference = identifier;
+            Cursor parent = cursor.dropParentUntil(J.class::isInstance);
+            if (parent.getValue() instanceof J.VariableDeclarations.NamedVariable) {
+                // The declaration of the field itself.
+                return ((J.VariableDeclarations.NamedVariable) parent.getValue()).getName() == identifier;
+            }
+            if (parent.getValue() instanceof J.FieldAccess) {
+                J.FieldAccess fieldAccess = parent.getValue();
+                if (fieldAccess.getName() != identifier) {
+                    return false;
+                }
+                if (!isThis(fieldAccess.getTarget())) {
+                    // A member of some other object that has the same name.
+                    return true;
+                }
+                reference = fieldAccess;
+                parent = parent.dropParentUntil(J.class::isInstance);
+            }
+            if (parent.getValue() instanceof J.MethodInvocation) {
+                J.MethodInvocation method = parent.getValue();
+                if (method.getName() == identifier) {
+                    return true;
+                }
+                return method.getSelect() == reference && !isMutator(method.getSimpleName()) &&
+                        !changesWhatItReturns(method, parent);
+            }
+            return false;
+        }
+
+        /**
+         * @return Whether the chain of calls and field accesses on what the read returns, like the {@code add} of
+         * {@code fixture.getItems().add(item)}, looks like it changes the fixture or assigns one of its fields.
+         */
+        private static boolean changesWhatItReturns(J.MethodInvocation read, Cursor readCursor) {
+            Expression chained = read;
+            for (Cursor parent = readCursor.dropParentUntil(J.class::isInstance); ;
+                 parent = parent.dropParentUntil(J.class::isInstance)) {
+                Object value = parent.getValue();
+                if (value instanceof J.MethodInvocation && ((J.MethodInvocation) value).getSelect() == chained) {
+                    if (isMutator(((J.MethodInvocation) value).getSimpleName())) {
+                        return true;
+                    }
+                    chained = (J.MethodInvocation) value;
+                } else if (value instanceof J.FieldAccess && ((J.FieldAccess) value).getTarget() == chained) {
+                    chained = (J.FieldAccess) value;
+                } else {
+                    return (value instanceof J.Assignment && ((J.Assignment) value).getVariable() == chained) ||
+                            (value instanceof J.AssignmentOperation &&
+                                    ((J.AssignmentOperation) value).getVariable() == chained) ||
+                            (value instanceof J.Unary && ((J.Unary) value).getExpression() == chained);
+                }
+            }
+        }
+
+        /**
+         * A mock or spy records the stubbing and calls of each test, so it has to be rebuilt for the next one.
+         */
+        private static boolean isTestDouble(Expression assignment) {
+            return assignment instanceof J.MethodInvocation &&
+                    TEST_DOUBLES.contains(((J.MethodInvocation) assignment).getSimpleName());
+        }
+
+        /**
+         * @return Whether the reference is inside the arguments or the target of a stubbing call, like
+         * {@code when(service.find())} or {@code doReturn(x).when(service)}.
+         */
+        private static boolean isStubbed(Cursor cursor) {
+            for (Cursor parent = cursor.getParent(); parent != null; parent = parent.getParent()) {
+                Object value = parent.getValue();
+                if (value instanceof J.MethodDeclaration || value instanceof J.ClassDeclaration) {
+                    return false;
+                }
+                if (value instanceof J.MethodInvocation && STUBBINGS.contains(((J.MethodInvocation) value).getSimpleName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasParameters(J.MethodDeclaration method) {
+            for (Statement parameter : method.getParameters()) {
+                if (!(parameter instanceof J.Empty)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isMutator(String methodName) {
+            for (String prefix : MUTATOR_PREFIXES) {
+                if (methodName.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isThis(Expression expression) {
+            return expression instanceof J.Identifier && "this".equals(((J.Identifier) expression).getSimpleName());
+        }
+
+        private static boolean isStatic(List<J.Modifier> modifiers) {
+            for (J.Modifier modifier : modifiers) {
+                if (modifier.getType() == J.Modifier.Type.Static) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasAnnotation(List<J.Annotation> annotations, String type) {
+            for (J.Annotation annotation : annotations) {
+                if (TypeUtils.isOfClassType(annotation.getType(), type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
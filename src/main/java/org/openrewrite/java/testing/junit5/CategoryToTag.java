@@ -15,23 +15,45 @@
  */
 package org.openrewrite.java.testing.junit5;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
+import org.openrewrite.Option;
 import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.search.FindAnnotations;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.Map;
 
 import static org.openrewrite.Tree.randomId;
 
-public class CategoryToTag extends Recipe {
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class CategoryToTag extends ReferencedTypesRecipe {
+
+    @Option(displayName = "Category tags",
+            description = "The tag name to use for each fully qualified category class. Categories not listed become a tag named after their simple class name.",
+            example = "com.acme.SlowTests: slow",
+            required = false)
+    @Nullable
+    Map<String, String> categoryTags;
+
+    public CategoryToTag() {
+        this(null);
+    }
+
+    @JsonCreator
+    public CategoryToTag(@Nullable Map<String, String> categoryTags) {
+        this.categoryTags = categoryTags;
+    }
 
     @Override
     public String getDisplayName() {
@@ -40,103 +62,137 @@ public class CategoryToTag extends Recipe {
 
     @Override
     public String getDescription() {
-        return "Transforms the JUnit 4 `@Category`, which can list multiple categories, into one `@Tag` annotation per category listed.";
+        return "Transforms the JUnit 4 `@Category`, which can list multiple categories, into one `@Tag` annotation per category listed. " +
+                "The number of tags added per module is available from `TagCounts` in the `ExecutionContext` after the run.";
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new CategoryToTagVisitor();
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new CategoryToTagVisitor(categoryTags == null ? Collections.emptyMap() : categoryTags);
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.experimental.categories.Category");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.experimental.categories.Category");
     }
 
     public static class CategoryToTagVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private static final String CATEGORY = "org.junit.experimental.categories.Category";
         private static final JavaType.Class tagType = JavaType.Class.build("org.junit.jupiter.api.Tag");
 
+        private final Map<String, String> categoryTags;
+
+        public CategoryToTagVisitor() {
+            this(Collections.emptyMap());
+        }
+
+        /**
+         * @param categoryTags Tag names by fully qualified category class name.
+         */
+        public CategoryToTagVisitor(Map<String, String> categoryTags) {
+            this.categoryTags = categoryTags;
+        }
+
         @Override
         public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
             J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
-            Set<J.Annotation> categoryAnnotations = FindAnnotations.find(cd, "@" + "org.junit.experimental.categories.Category");
-            if (!categoryAnnotations.isEmpty()) {
-                cd = cd.withLeadingAnnotations(cd.getLeadingAnnotations().stream()
-                        .flatMap(this::categoryAnnotationToTagAnnotations)
-                        .collect(Collectors.toList()));
-                maybeRemoveImport("org.junit.experimental.categories.Category");
-                maybeAddImport(tagType);
+            List<J.Annotation> annotations = categoriesToTags(cd.getLeadingAnnotations(), ctx);
+            if (annotations != cd.getLeadingAnnotations()) {
+                cd = maybeAutoFormat(classDecl, cd.withLeadingAnnotations(annotations), ctx);
             }
-            cd = maybeAutoFormat(classDecl, cd, ctx);
             return cd;
         }
 
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
-            Set<J.Annotation> categoryAnnotations = FindAnnotations.find(m, "@" + "org.junit.experimental.categories.Category");
-            if (!categoryAnnotations.isEmpty()) {
-                m = m.withLeadingAnnotations(m.getLeadingAnnotations().stream()
-                        .flatMap(this::categoryAnnotationToTagAnnotations)
-                        .collect(Collectors.toList()));
-
-                maybeRemoveImport("org.junit.experimental.categories.Category");
-                maybeAddImport(tagType);
+            List<J.Annotation> annotations = categoriesToTags(m.getLeadingAnnotations(), ctx);
+            if (annotations != m.getLeadingAnnotations()) {
+                m = maybeAutoFormat(method, m.withLeadingAnnotations(annotations), ctx);
             }
-            m = maybeAutoFormat(method, m, ctx);
             return m;
         }
 
-        private Stream<J.Annotation> categoryAnnotationToTagAnnotations(J.Annotation maybeCategory) {
-            if (maybeCategory.getArguments() != null && TypeUtils.isOfClassType(maybeCategory.getAnnotationType().getType(), "org.junit.experimental.categories.Category")) {
-                Expression annotationArgument = maybeCategory.getArguments().iterator().next();
-                if (annotationArgument instanceof J.Assignment) {
-                    annotationArgument = ((J.Assignment) annotationArgument).getAssignment();
+        /**
+         * Only the leading annotations of the declaration being visited are looked at, since nested declarations are
+         * visited on their own, and a new list is only allocated once a {@code @Category} turns up.
+         *
+         * @return The same list if there is no {@code @Category} to replace.
+         */
+        private List<J.Annotation> categoriesToTags(List<J.Annotation> annotations, ExecutionContext ctx) {
+            List<J.Annotation> mapped = null;
+            for (int i = 0; i < annotations.size(); i++) {
+                J.Annotation annotation = annotations.get(i);
+                if (annotation.getArguments() != null && TypeUtils.isOfClassType(annotation.getAnnotationType().getType(), CATEGORY)) {
+                    if (mapped == null) {
+                        mapped = new ArrayList<>(annotations.size() + 1);
+                        mapped.addAll(annotations.subList(0, i));
+                    }
+                    addTags(annotation, mapped, ctx);
+                } else if (mapped != null) {
+                    mapped.add(annotation);
                 }
+            }
+            if (mapped == null) {
+                return annotations;
+            }
+            maybeRemoveImport(CATEGORY);
+            maybeAddImport(tagType);
+            return mapped;
+        }
 
-                Stream<J.FieldAccess> categories = Stream.empty();
-                if (annotationArgument instanceof J.NewArray) {
-                    J.NewArray argArray = (J.NewArray) annotationArgument;
-                    if (argArray.getInitializer() != null) {
-                        categories = argArray.getInitializer().stream()
-                                .map(J.FieldAccess.class::cast);
+        private void addTags(J.Annotation category, List<J.Annotation> annotations, ExecutionContext ctx) {
+            //noinspection ConstantConditions
+            Expression annotationArgument = category.getArguments().iterator().next();
+            if (annotationArgument instanceof J.Assignment) {
+                annotationArgument = ((J.Assignment) annotationArgument).getAssignment();
+            }
+
+            if (annotationArgument instanceof J.NewArray) {
+                J.NewArray argArray = (J.NewArray) annotationArgument;
+                if (argArray.getInitializer() != null) {
+                    for (Expression categoryClass : argArray.getInitializer()) {
+                        annotations.add(tag((J.FieldAccess) categoryClass, ctx));
                     }
                 }
-                if (annotationArgument instanceof J.FieldAccess) {
-                    categories = Stream.of((J.FieldAccess) annotationArgument);
-                }
-                return categories.map(category -> {
-                    String targetName = ((J.Identifier) category.getTarget()).getSimpleName();
-                    J.Annotation tagAnnotation = new J.Annotation(
-                            randomId(),
-                            Space.EMPTY,
-                            Markers.EMPTY,
-                            J.Identifier.build(randomId(), Space.EMPTY, Markers.EMPTY, tagType.getClassName(), tagType),
-                            JContainer.build(Space.EMPTY,
-                                    Collections.singletonList(
-                                            new JRightPadded<>(
-                                                    new J.Literal(
-                                                            randomId(),
-                                                            Space.EMPTY,
-                                                            Markers.EMPTY,
-                                                            targetName,
-                                                            "\"" + targetName + "\"",
-                                                            null,
-                                                            JavaType.Primitive.String
-                                                    ),
-                                                    Space.EMPTY,
-                                                    Markers.EMPTY
-                                            )
-                                    ),
-                                    Markers.EMPTY
-                            )
-                    );
-                    maybeRemoveImport(TypeUtils.asFullyQualified(category.getTarget().getType()));
-                    return tagAnnotation;
-                });
-            } else {
-                return Stream.of(maybeCategory);
+            } else if (annotationArgument instanceof J.FieldAccess) {
+                annotations.add(tag((J.FieldAccess) annotationArgument, ctx));
             }
         }
+
+        private J.Annotation tag(J.FieldAccess categoryClass, ExecutionContext ctx) {
+            JavaType.FullyQualified categoryType = TypeUtils.asFullyQualified(categoryClass.getTarget().getType());
+            String targetName = categoryType == null ? null : categoryTags.get(categoryType.getFullyQualifiedName());
+            if (targetName == null) {
+                targetName = ((J.Identifier) categoryClass.getTarget()).getSimpleName();
+            }
+            maybeRemoveImport(categoryType);
+            J.CompilationUnit cu = getCursor().dropParentUntil(J.CompilationUnit.class::isInstance).getValue();
+            TagCounts.of(ctx).record(cu.getSourcePath(), targetName);
+            return new J.Annotation(
+                    randomId(),
+                    Space.EMPTY,
+                    Markers.EMPTY,
+                    J.Identifier.build(randomId(), Space.EMPTY, Markers.EMPTY, tagType.getClassName(), tagType),
+                    JContainer.build(Space.EMPTY,
+                            Collections.singletonList(
+                                    new JRightPadded<>(
+                                            new J.Literal(
+                                                    randomId(),
+                                                    Space.EMPTY,
+                                                    Markers.EMPTY,
+                                                    targetName,
+                                                    "\"" + targetName + "\"",
+                                                    null,
+                                                    JavaType.Primitive.String
+                                            ),
+                                            Space.EMPTY,
+                                            Markers.EMPTY
+                                    )
+                            ),
+                            Markers.EMPTY
+                    )
+            );
+        }
     }
 }
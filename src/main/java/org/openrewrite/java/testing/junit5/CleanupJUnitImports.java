@@ -16,12 +16,16 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.testing.internal.MeteredRecipe;
+import org.openrewrite.java.testing.internal.RequiresReferencedTypes;
 import org.openrewrite.java.tree.J;
 
-public class CleanupJUnitImports extends Recipe {
+import java.util.Collection;
+import java.util.Collections;
+
+public class CleanupJUnitImports extends MeteredRecipe implements RequiresReferencedTypes {
     @Override
     public String getDisplayName() {
         return "Cleanup JUnit imports";
@@ -33,7 +37,12 @@ public class CleanupJUnitImports extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.*");
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new CleanupJUnitImportsVisitor();
     }
 
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.testing.internal.MavenModules;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
+import org.openrewrite.java.tree.TypeUtils;
+import org.openrewrite.marker.Markers;
+import org.openrewrite.text.PlainText;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Turns on parallel execution of JUnit Jupiter tests, running test classes and the tests within them concurrently,
+ * in a {@code src/test/resources/junit-platform.properties} of each Maven module with JUnit Jupiter tests. Test sources
+ * that no pom of the run contains belong to no module, and get no properties file.
+ * <p>
+ * Test classes that are unlikely to be safe to run concurrently are kept back:
+ * <ul>
+ *     <li>Classes whose tests depend on each other's effects, because they fix the order of their tests, share an
+ *     instance across tests, keep state in static fields that are not final or hold a value of a type not known to be
+ *     immutable, or in {@code @ClassRule} fields, run their tests one after another with
+ *     {@code @Execution(SAME_THREAD)}.</li>
+ *     <li>Classes that change system properties get a {@code @ResourceLock} on them, so that they do not run at the
+ *     same time as each other.</li>
+ * </ul>
+ * Classes that already declare how they are to be run, with {@code @Execution}, {@code @ResourceLock} or
+ * {@code @Isolated}, are left alone. Nothing can be known about the state tests share through other classes, so the
+ * properties file is a starting point.
+ */
+public class EnableParallelExecution extends ReferencedTypesRecipe {
+    private static final String PROPERTIES = "src/test/resources/junit-platform.properties";
+    private static final String ENABLED = "junit.jupiter.execution.parallel.enabled";
+    private static final String[] SETTINGS = {
+            ENABLED + " = true",
+            "junit.jupiter.execution.parallel.mode.default = concurrent",
+            "junit.jupiter.execution.parallel.mode.classes.default = concurrent"
+    };
+
+    private static final List<String> ALREADY_CONFIGURED = Arrays.asList(
+            "org.junit.jupiter.api.parallel.Execution",
+            "org.junit.jupiter.api.parallel.ResourceLock",
+            "org.junit.jupiter.api.parallel.ResourceLocks",
+            "org.junit.jupiter.api.parallel.Isolated"
+    );
+
+    private static final List<String> DEPENDENT_TESTS = Arrays.asList(
+            "org.junit.jupiter.api.TestMethodOrder",
+            "org.junit.FixMethodOrder",
+            "org.junit.jupiter.api.TestInstance"
+    );
+
+    /**
+     * Types whose instances a static final field can share between concurrent tests, besides primitives, enums and the
+     * value types of {@code java.time}.
+     */
+    private static final Set<String> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Class",
+            "java.math.BigDecimal", "java.math.BigInteger", "java.util.UUID", "java.util.regex.Pattern"
+    ));
+
+    private static final List<MethodMatcher> SYSTEM_PROPERTY_CHANGES = Arrays.asList(
+            new MethodMatcher("java.lang.System setProperty(..)"),
+            new MethodMatcher("java.lang.System setProperties(..)"),
+            new MethodMatcher("java.lang.System clearProperty(..)")
+    );
+
+    private static final ThreadLocal<JavaParser> PARALLEL_PARSER = StubParsers.fromSources(
+            "package org.junit.jupiter.api.parallel;\n" +
+                    "public @interface Execution { ExecutionMode value(); }",
+            "package org.junit.jupiter.api.parallel;\n" +
+                    "public enum ExecutionMode { SAME_THREAD, CONCURRENT }",
+            "package org.junit.jupiter.api.parallel;\n" +
+                    "public @interface ResourceLock { String value(); }",
+            "package org.junit.jupiter.api.parallel;\n" +
+                    "public class Resources { public static final String SYSTEM_PROPERTIES = \"java.lang.System.properties\"; }"
+    );
+
+    @Override
+    public String getDisplayName() {
+        return "Enable JUnit Jupiter parallel execution";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Turns on parallel execution in `junit-platform.properties` and keeps test classes that share state, or change system properties, from running their tests concurrently.";
+    }
+
+    @Override
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.jupiter.api.Test");
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new EnableParallelExecutionVisitor();
+    }
+
+    /**
+     * Adds or completes the properties file of every module with JUnit Jupiter tests.
+     */
+    @Override
+    protected List<SourceFile> visit(List<SourceFile> before, ExecutionContext ctx) {
+        List<Path> sourcePaths = new ArrayList<>(before.size());
+        for (SourceFile sourceFile : before) {
+            sourcePaths.add(sourceFile.getSourcePath());
+        }
+        List<Path> moduleRoots = MavenModules.roots(sourcePaths);
+
+        Set<Path> modules = new LinkedHashSet<>();
+        Set<Path> propertiesFiles = new HashSet<>();
+        for (SourceFile sourceFile : before) {
+            Path sourcePath = sourceFile.getSourcePath();
+            Path module = MavenModules.module(moduleRoots, sourcePath);
+            if (module == null) {
+                continue;
+            }
+            if (sourcePath.equals(module.resolve(PROPERTIES))) {
+                propertiesFiles.add(module);
+            } else if (sourceFile instanceof J.CompilationUnit &&
+                    ReferencedTypes.of((J.CompilationUnit) sourceFile, ctx).uses("org.junit.jupiter.api.Test")) {
+                modules.add(module);
+            }
+        }
+
+        List<SourceFile> after = ListUtils.map(before, sourceFile -> {
+            Path module = MavenModules.module(moduleRoots, sourceFile.getSourcePath());
+            if (module == null || !modules.contains(module) || !sourceFile.getSourcePath().equals(module.resolve(PROPERTIES))) {
+                return sourceFile;
+            }
+            // A properties file parsed into some other tree, like a properties LST, is completed as plain text.
+            PlainText properties = sourceFile instanceof PlainText ? (PlainText) sourceFile :
+                    new PlainText(sourceFile.getId(), sourceFile.getSourcePath(), sourceFile.getMarkers(), sourceFile.print());
+            if (properties.getText().contains(ENABLED)) {
+                return sourceFile;
+            }
+            StringBuilder text = new StringBuilder(properties.getText());
+            if (text.length() > 0 && text.charAt(text.length() - 1) != '\n') {
+                text.append('\n');
+            }
+            for (String setting : SETTINGS) {
+                text.append(setting).append('\n');
+            }
+            return properties.withText(text.toString());
+        });
+
+        for (Path module : modules) {
+            if (!propertiesFiles.contains(module)) {
+                after = ListUtils.concat(after, new PlainText(randomId(), module.resolve(PROPERTIES), Markers.EMPTY,
+                        String.join("\n", SETTINGS) + "\n"));
+            }
+        }
+        return after;
+    }
+
+    public static class EnableParallelExecutionVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+            if (!(getCursor().dropParentUntil(J.class::isInstance).getValue() instanceof J.CompilationUnit) ||
+                    hasAnyAnnotation(cd.getLeadingAnnotations(), ALREADY_CONFIGURED)) {
+                return cd;
+            }
+
+            if (changesSystemProperties(cd)) {
+                cd = cd.withTemplate(template("@ResourceLock(Resources.SYSTEM_PROPERTIES)")
+                                .imports("org.junit.jupiter.api.parallel.ResourceLock", "org.junit.jupiter.api.parallel.Resources")
+                                .javaParser(PARALLEL_PARSER::get)
+                                .build(),
+                        cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                maybeAddImport("org.junit.jupiter.api.parallel.ResourceLock");
+                maybeAddImport("org.junit.jupiter.api.parallel.Resources");
+            }
+
+            if (hasAnyAnnotation(cd.getLeadingAnnotations(), DEPENDENT_TESTS) || sharesStaticState(cd)) {
+                cd = cd.withTemplate(template("@Execution(SAME_THREAD)")
+                                .imports("org.junit.jupiter.api.parallel.Execution")
+                                .staticImports("org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD")
+                                .javaParser(PARALLEL_PARSER::get)
+                                .build(),
+                        cd.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)));
+                maybeAddImport("org.junit.jupiter.api.parallel.Execution");
+                maybeAddImport("org.junit.jupiter.api.parallel.ExecutionMode", "SAME_THREAD");
+            }
+            return cd;
+        }
+
+        private static boolean hasAnyAnnotation(List<J.Annotation> annotations, List<String> types) {
+            for (J.Annotation annotation : annotations) {
+                for (String type : types) {
+                    if (TypeUtils.isOfClassType(annotation.getType(), type)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return Whether the class has a static field that is not final, or that holds a value of a type not known to
+         * be immutable, or a {@code @ClassRule} field.
+         */
+        private static boolean sharesStaticState(J.ClassDeclaration classDecl) {
+            for (Statement statement : classDecl.getBody().getStatements()) {
+                if (!(statement instanceof J.VariableDeclarations)) {
+                    continue;
+                }
+                J.VariableDeclarations field = (J.VariableDeclarations) statement;
+                if (hasAnyAnnotation(field.getLeadingAnnotations(), Collections.singletonList("org.junit.ClassRule"))) {
+                    return true;
+                }
+                if (hasModifier(field, J.Modifier.Type.Static) && (!hasModifier(field, J.Modifier.Type.Final) ||
+                        !isImmutable(field.getTypeExpression() == null ? null : field.getTypeExpression().getType()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isImmutable(@Nullable JavaType type) {
+            if (type instanceof JavaType.Primitive) {
+                return true;
+            }
+            if (!(type instanceof JavaType.Class)) {
+                return false;
+            }
+            JavaType.Class clazz = (JavaType.Class) type;
+            return clazz.getKind() == JavaType.Class.Kind.Enum ||
+                    IMMUTABLE_TYPES.contains(clazz.getFullyQualifiedName()) ||
+                    clazz.getPackageName().equals("java.time");
+        }
+
+        private static boolean hasModifier(J.VariableDeclarations field, J.Modifier.Type type) {
+            for (J.Modifier modifier : field.getModifiers()) {
+                if (modifier.getType() == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean changesSystemProperties(J.ClassDeclaration classDecl) {
+            boolean[] found = new boolean[1];
+            new JavaIsoVisitor<Integer>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Integer p) {
+                    for (MethodMatcher systemPropertyChange : SYSTEM_PROPERTY_CHANGES) {
+                        if (systemPropertyChange.matches(method)) {
+                            found[0] = true;
+                        }
+                    }
+                    return super.visitMethodInvocation(method, p);
+                }
+            }.visit(classDecl.getBody(), 0);
+            return found[0];
+        }
+    }
+}
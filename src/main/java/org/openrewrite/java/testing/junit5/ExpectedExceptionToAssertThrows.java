@@ -16,21 +16,20 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.StringUtils;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.*;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Replace usages of JUnit 4's @Rule ExpectedException with JUnit 5 Assertions.
@@ -44,31 +43,25 @@ import java.util.stream.Stream;
  * <p>
  * Does not currently support migration of ExpectedException.isAnyExceptionExpected().
  */
-public class ExpectedExceptionToAssertThrows extends Recipe {
-    private static final ThreadLocal<JavaParser> ASSERTIONS_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(
-                    Stream.concat(
-                            Parser.Input.fromResource("/META-INF/rewrite/JupiterAssertions.java", "---").stream(),
-                            Stream.of(
-                                    Parser.Input.fromString(
-                                            "package org.junit.jupiter.api.function;" +
-                                                    "public interface Executable {" +
-                                                    "void execute() throws Throwable;" +
-                                                    "}"),
-                                    Parser.Input.fromString(
-                                            "package org.hamcrest;\n" +
-                                                    "public interface Matcher<T> {\n" +
-                                                    "    boolean matches(Object var1);\n" +
-                                                    "}"),
-                                    Parser.Input.fromString(
-                                            "package org.hamcrest;\n" +
-                                                    "public class MatcherAssert {\n" +
-                                                    "    public static <T> void assertThat(T actual, Matcher<? super T> matcher) {}\n" +
-                                                    "    public static <T> void assertThat(String reason, T actual, Matcher<? super T> matcher) {}\n" +
-                                                    "    public static void assertThat(String reason, boolean assertion) {}\n" +
-                                                    "}"))
-                    ).collect(Collectors.toList())
-            ).build());
+public class ExpectedExceptionToAssertThrows extends ReferencedTypesRecipe {
+    private static final ThreadLocal<JavaParser> ASSERTIONS_PARSER = StubParsers.builder()
+            .resources(StubParsers.JUPITER_ASSERTIONS)
+            .sources(
+                    "package org.junit.jupiter.api.function;" +
+                            "public interface Executable {" +
+                            "void execute() throws Throwable;" +
+                            "}",
+                    "package org.hamcrest;\n" +
+                            "public interface Matcher<T> {\n" +
+                            "    boolean matches(Object var1);\n" +
+                            "}",
+                    "package org.hamcrest;\n" +
+                            "public class MatcherAssert {\n" +
+                            "    public static <T> void assertThat(T actual, Matcher<? super T> matcher) {}\n" +
+                            "    public static <T> void assertThat(String reason, T actual, Matcher<? super T> matcher) {}\n" +
+                            "    public static void assertThat(String reason, boolean assertion) {}\n" +
+                            "}")
+            .build();
 
     @Override
     public String getDisplayName() {
@@ -81,12 +74,17 @@ public class ExpectedExceptionToAssertThrows extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.rules.ExpectedException");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.rules.ExpectedException");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    public boolean isInheritable() {
+        return true;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new ExpectedExceptionToAssertThrowsVisitor();
     }
 
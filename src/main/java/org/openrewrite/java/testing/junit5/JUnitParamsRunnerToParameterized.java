@@ -22,7 +22,8 @@ import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.Comment;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
@@ -42,7 +43,7 @@ import java.util.stream.Collectors;
  *    `@Parameters(named = "...")` and associated `@NamedParameter` init-method
  * Unsupported tests are identified with a comment on the associated `@Parameters(...)` annotation.
  */
-public class JUnitParamsRunnerToParameterized extends Recipe {
+public class JUnitParamsRunnerToParameterized extends ReferencedTypesRecipe {
 
     private static final AnnotationMatcher RUN_WITH_JUNIT_PARAMS_ANNOTATION_MATCHER = new AnnotationMatcher("@org.junit.runner.RunWith(junitparams.JUnitParamsRunner.class)");
     private static final AnnotationMatcher JUNIT_TEST_ANNOTATION_MATCHER = new AnnotationMatcher("@org.junit.Test");
@@ -57,9 +58,7 @@ public class JUnitParamsRunnerToParameterized extends Recipe {
     private static final String INIT_METHODS_MAP = "named-parameters-map";
     private static final String CONVERSION_NOT_SUPPORTED = "conversion-not-supported";
 
-    private static final ThreadLocal<JavaParser> PARAMETERIZED_TEMPLATE_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(Parser.Input.fromResource("/META-INF/rewrite/Parameterized.java", "---")).build()
-    );
+    private static final ThreadLocal<JavaParser> PARAMETERIZED_TEMPLATE_PARSER = StubParsers.fromResources(StubParsers.PARAMETERIZED);
 
     @Override
     public String getDisplayName() {
@@ -76,12 +75,12 @@ public class JUnitParamsRunnerToParameterized extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("junitparams.*");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("junitparams.*");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
 
             @Override
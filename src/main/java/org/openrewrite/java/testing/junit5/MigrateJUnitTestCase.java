@@ -16,34 +16,32 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.*;
 import org.openrewrite.java.marker.JavaSearchResult;
 import org.openrewrite.java.search.FindAnnotations;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Marker;
 import org.openrewrite.marker.Markers;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
 import static org.openrewrite.Tree.randomId;
 
-public class MigrateJUnitTestCase extends Recipe {
-    private static final ThreadLocal<JavaParser> JAVA_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion()
-                    .dependsOn(Collections.singletonList(Parser.Input.fromString(
-                            "package org.junit.jupiter.api;\n" +
-                                    "public @interface Test {}\n" +
-                                    "public @interface AfterEach {}\n" +
-                                    "public @interface BeforeEach {}")))
-                    .build());
+public class MigrateJUnitTestCase extends ReferencedTypesRecipe {
+    private static final ThreadLocal<JavaParser> JAVA_PARSER = StubParsers.fromSources(
+            "package org.junit.jupiter.api;\n" +
+                    "public @interface Test {}\n" +
+                    "public @interface AfterEach {}\n" +
+                    "public @interface BeforeEach {}");
 
     private static final AnnotationMatcher JUNIT_TEST_ANNOTATION_MATCHER = new AnnotationMatcher("@org.junit.Test");
 
@@ -70,7 +68,17 @@ public class MigrateJUnitTestCase extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("junit.framework.TestCase");
+    }
+
+    @Override
+    public boolean isInheritable() {
+        return true;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createApplicableTest() {
         return new JavaIsoVisitor<ExecutionContext>() {
             private final Marker FOUND_TYPE = new JavaSearchResult(randomId(), null, null);
 
@@ -83,14 +91,16 @@ public class MigrateJUnitTestCase extends Recipe {
                     }
                 }
 
-                doAfterVisit(new UsesType<>("junit.framework.TestCase"));
+                if (ReferencedTypes.of(cu, executionContext).uses("junit.framework.TestCase")) {
+                    c = c.withMarkers(c.getMarkers().addIfAbsent(FOUND_TYPE));
+                }
                 return c;
             }
         };
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
             @Override
             public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
@@ -16,15 +16,14 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.format.AutoFormatVisitor;
 import org.openrewrite.java.search.FindAnnotations;
 import org.openrewrite.java.search.FindFields;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.Statement;
 import org.openrewrite.java.tree.TypeUtils;
@@ -46,19 +45,15 @@ import java.util.stream.Collectors;
  * <p>
  * Must be ran in the JUnit5 suite.
  */
-public class MockitoJUnitToMockitoExtension extends Recipe {
-    private static final ThreadLocal<JavaParser> JAVA_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion()
-                    .dependsOn(Arrays.asList(
-                            Parser.Input.fromString("package org.junit.jupiter.api.extension;\n" +
-                                    "public @interface ExtendWith {\n" +
-                                    "Class[] value();\n" +
-                                    "}"),
-                            Parser.Input.fromString("package org.mockito.junit.jupiter;\n" +
-                                    "public class MockitoExtension {\n" +
-                                    "}")
-                    ))
-                    .build()
+public class MockitoJUnitToMockitoExtension extends ReferencedTypesRecipe {
+    private static final ThreadLocal<JavaParser> JAVA_PARSER = StubParsers.fromSources(
+            "package org.junit.jupiter.api.extension;\n" +
+                    "public @interface ExtendWith {\n" +
+                    "Class[] value();\n" +
+                    "}",
+            "package org.mockito.junit.jupiter;\n" +
+                    "public class MockitoExtension {\n" +
+                    "}"
     );
 
     @Override
@@ -72,19 +67,12 @@ public class MockitoJUnitToMockitoExtension extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new JavaIsoVisitor<ExecutionContext>() {
-            @Override
-            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-                doAfterVisit(new UsesType<>("org.mockito.junit.MockitoTestRule"));
-                doAfterVisit(new UsesType<>("org.mockito.junit.MockitoRule"));
-                return cu;
-            }
-        };
+    public Collection<String> getRequiredTypes() {
+        return Arrays.asList("org.mockito.junit.MockitoTestRule", "org.mockito.junit.MockitoRule");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new MockitoRuleToMockitoExtensionVisitor();
     }
 
@@ -22,7 +22,8 @@ import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
@@ -32,7 +33,7 @@ import java.util.stream.Collectors;
 
 import static org.openrewrite.Tree.randomId;
 
-public class ParameterizedRunnerToParameterized extends Recipe {
+public class ParameterizedRunnerToParameterized extends ReferencedTypesRecipe {
     private static final AnnotationMatcher RUN_WITH_PARAMETERS = new AnnotationMatcher("@org.junit.runner.RunWith(org.junit.runners.Parameterized.class)");
     private static final AnnotationMatcher JUNIT_TEST = new AnnotationMatcher("@org.junit.Test");
     private static final AnnotationMatcher JUPITER_TEST = new AnnotationMatcher("@org.junit.jupiter.api.Test");
@@ -45,9 +46,7 @@ public class ParameterizedRunnerToParameterized extends Recipe {
     private static final String FIELD_INJECTION_ARGUMENTS = "field-injection-args";
     private static final String PARAMETERS_METHOD_NAME = "parameters-method-name";
 
-    private static final ThreadLocal<JavaParser> PARAMETERIZED_TEMPLATE_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(Parser.Input.fromResource("/META-INF/rewrite/Parameterized.java", "---")).build()
-    );
+    private static final ThreadLocal<JavaParser> PARAMETERIZED_TEMPLATE_PARSER = StubParsers.fromResources(StubParsers.PARAMETERIZED);
 
     @Override
     public String getDisplayName() {
@@ -60,12 +59,12 @@ public class ParameterizedRunnerToParameterized extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.runners.Parameterized");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.runners.Parameterized");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new ParameterizedRunnerVisitor();
     }
 
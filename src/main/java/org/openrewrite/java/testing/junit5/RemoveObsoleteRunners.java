@@ -19,19 +19,19 @@ import lombok.EqualsAndHashCode;
 import lombok.Value;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.search.FindAnnotations;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 import org.openrewrite.java.tree.J;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Value
 @EqualsAndHashCode(callSuper = true)
-public class RemoveObsoleteRunners extends Recipe {
+public class RemoveObsoleteRunners extends ReferencedTypesRecipe {
     @Option(displayName = "Obsolete Runners",
             description = "The fully qualified class names of the JUnit4 runners to be removed.",
             example = "org.junit.runners.JUnit4")
@@ -49,20 +49,12 @@ public class RemoveObsoleteRunners extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new JavaIsoVisitor<ExecutionContext>() {
-            @Override
-            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-                for (String runner : obsoleteRunners) {
-                    doAfterVisit(new UsesType<>(runner));
-                }
-                return cu;
-            }
-        };
+    public Collection<String> getRequiredTypes() {
+        return obsoleteRunners;
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new RemoveObsoleteRunnersVisitor();
     }
 
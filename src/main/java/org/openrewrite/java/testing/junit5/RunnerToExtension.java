@@ -21,23 +21,21 @@ import lombok.EqualsAndHashCode;
 import lombok.Value;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.search.FindAnnotations;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
-import static org.openrewrite.Parser.Input.fromString;
-
 @Value
 @EqualsAndHashCode(callSuper = true)
-public class RunnerToExtension extends Recipe {
+public class RunnerToExtension extends ReferencedTypesRecipe {
 
     @Option(displayName = "Runners",
             description = "The fully qualified class names of the JUnit4 runners to replace. Sometimes several runners are replaced by a single JUnit Jupiter extension.",
@@ -50,7 +48,8 @@ public class RunnerToExtension extends Recipe {
     String extension;
 
     /**
-     * Thread local is not static because it depends on instance variables passed into the recipe.
+     * Thread local is not static because it depends on instance variables passed into the recipe. Recipes configured
+     * with the same extension share the same parser.
      */
     @JsonIgnore
     @EqualsAndHashCode.Exclude
@@ -65,32 +64,22 @@ public class RunnerToExtension extends Recipe {
         //noinspection ConstantConditions
         if (extension != null) {
             JavaType.Class extensionType = JavaType.Class.build(extension);
-            this.javaParser = ThreadLocal.withInitial(() ->
-
-                    JavaParser.fromJavaVersion().dependsOn(Arrays.asList(
-                            fromString("package org.junit.jupiter.api.extension;\n" +
-                                    "public @interface ExtendWith {\n" +
-                                    "   Class<? extends Extension>[] value();\n" +
-                                    "}"),
-                            fromString("package " + extensionType.getPackageName() + ";\n" +
-                                    "public class " + extensionType.getClassName() + " {}"
-                            ))).build());
+            this.javaParser = StubParsers.fromSources(
+                    "package org.junit.jupiter.api.extension;\n" +
+                            "public @interface ExtendWith {\n" +
+                            "   Class<? extends Extension>[] value();\n" +
+                            "}",
+                    "package " + extensionType.getPackageName() + ";\n" +
+                            "public class " + extensionType.getClassName() + " {}"
+            );
         } else {
             javaParser = null;
         }
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new JavaIsoVisitor<ExecutionContext>() {
-            @Override
-            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-                for (String runner : runners) {
-                    doAfterVisit(new UsesType<>(runner));
-                }
-                return cu;
-            }
-        };
+    public Collection<String> getRequiredTypes() {
+        return runners;
     }
 
     @Override
@@ -103,7 +92,7 @@ public class RunnerToExtension extends Recipe {
         return "Replace runners with the JUnit Jupiter extension equivalent.";
     }
 
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
             private final JavaType.Class extensionType = JavaType.Class.build(extension);
 
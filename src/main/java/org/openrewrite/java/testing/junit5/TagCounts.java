@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.java.testing.internal.ExecutionContextMessages;
+import org.openrewrite.java.testing.internal.MavenModules;
+import org.openrewrite.java.testing.internal.RecipeMetrics;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The number of {@code @Tag} annotations {@link CategoryToTag} added per source file and tag, kept in the
+ * {@link ExecutionContext} of a run, to be summed up per module after the run like {@link RecipeMetrics}. These are the
+ * tags a build can then include or exclude with JUnit Platform tag filtering, e.g. to run only the fast tests on every
+ * commit.
+ */
+public final class TagCounts {
+    private static final String TAG_COUNTS = TagCounts.class.getName();
+
+    private final Map<Path, Map<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    public static TagCounts of(ExecutionContext ctx) {
+        return ExecutionContextMessages.computeIfAbsent(ctx, TAG_COUNTS, TagCounts::new);
+    }
+
+    void record(Path sourcePath, String tag) {
+        counts.computeIfAbsent(sourcePath, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tag, t -> new LongAdder())
+                .increment();
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    /**
+     * @param moduleRoots The modules of the run, as {@link MavenModules} defines them.
+     * @return Tag counts by tag name, by module name, both sorted by name. Source files that no module contains are
+     * counted under {@code .}, like those of the root module.
+     */
+    public Map<String, Map<String, Long>> getCounts(Collection<Path> moduleRoots) {
+        Map<String, Map<String, Long>> all = new TreeMap<>();
+        counts.forEach((sourcePath, tags) -> {
+            Path module = MavenModules.module(moduleRoots, sourcePath);
+            Map<String, Long> moduleTags = all.computeIfAbsent(module == null ? "." : MavenModules.name(module),
+                    m -> new TreeMap<>());
+            tags.forEach((tag, count) -> moduleTags.merge(tag, count.sum(), Long::sum));
+        });
+        return Collections.unmodifiableMap(all);
+    }
+
+    public String summary(Collection<Path> moduleRoots) {
+        Map<String, Map<String, Long>> all = getCounts(moduleRoots);
+        int moduleWidth = "module".length();
+        int tagWidth = "tag".length();
+        for (Map.Entry<String, Map<String, Long>> module : all.entrySet()) {
+            moduleWidth = Math.max(moduleWidth, module.getKey().length());
+            for (String tag : module.getValue().keySet()) {
+                tagWidth = Math.max(tagWidth, tag.length());
+            }
+        }
+        String row = "%-" + moduleWidth + "s %-" + tagWidth + "s %10s%n";
+        StringBuilder summary = new StringBuilder(String.format(row, "module", "tag", "count"));
+        all.forEach((module, tags) -> tags.forEach((tag, count) ->
+                summary.append(String.format(row, module, tag, count))));
+        return summary.toString();
+    }
+}
@@ -16,30 +16,25 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.*;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class TemporaryFolderToTempDir extends Recipe {
+public class TemporaryFolderToTempDir extends ReferencedTypesRecipe {
     private static final AnnotationMatcher CLASS_RULE_ANNOTATION_MATCHER = new AnnotationMatcher("@org.junit.ClassRule");
     private static final AnnotationMatcher RULE_ANNOTATION_MATCHER = new AnnotationMatcher("@org.junit.Rule");
 
     private static final JavaType.Class FILE_TYPE = JavaType.Class.build("java.io.File");
     private static final JavaType.Class STRING_TYPE = JavaType.Class.build("java.lang.String");
-    private static final ThreadLocal<JavaParser> TEMPDIR_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(Collections.singletonList(
-                    Parser.Input.fromString("" +
-                            "package org.junit.jupiter.api.io;\n" +
-                            "public @interface TempDir {}")
-            )).build()
-    );
+    private static final ThreadLocal<JavaParser> TEMPDIR_PARSER = StubParsers.fromSources("" +
+            "package org.junit.jupiter.api.io;\n" +
+            "public @interface TempDir {}");
 
     @Override
     public String getDisplayName() {
@@ -52,12 +47,17 @@ public class TemporaryFolderToTempDir extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.rules.TemporaryFolder");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.rules.TemporaryFolder");
     }
 
     @Override
-    protected TemporaryFolderToTempDirVisitor getVisitor() {
+    public boolean isInheritable() {
+        return true;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new TemporaryFolderToTempDirVisitor();
     }
 
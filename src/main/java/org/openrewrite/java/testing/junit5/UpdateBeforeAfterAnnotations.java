@@ -16,14 +16,27 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.ChangeType;
 import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 import org.openrewrite.java.tree.J;
 
-public class UpdateBeforeAfterAnnotations extends Recipe {
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class UpdateBeforeAfterAnnotations extends ReferencedTypesRecipe {
+    private static final Map<String, String> LIFECYCLE_ANNOTATIONS = new LinkedHashMap<>();
+
+    static {
+        LIFECYCLE_ANNOTATIONS.put("org.junit.Before", "org.junit.jupiter.api.BeforeEach");
+        LIFECYCLE_ANNOTATIONS.put("org.junit.After", "org.junit.jupiter.api.AfterEach");
+        LIFECYCLE_ANNOTATIONS.put("org.junit.BeforeClass", "org.junit.jupiter.api.BeforeAll");
+        LIFECYCLE_ANNOTATIONS.put("org.junit.AfterClass", "org.junit.jupiter.api.AfterAll");
+    }
+
     @Override
     public String getDisplayName() {
         return "Migrate JUnit 4 lifecycle annotations to JUnit Jupiter";
@@ -35,21 +48,12 @@ public class UpdateBeforeAfterAnnotations extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new JavaIsoVisitor<ExecutionContext>() {
-            @Override
-            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-                doAfterVisit(new UsesType<>("org.junit.BeforeClass"));
-                doAfterVisit(new UsesType<>("org.junit.Before"));
-                doAfterVisit(new UsesType<>("org.junit.After"));
-                doAfterVisit(new UsesType<>("org.junit.AfterClass"));
-                return cu;
-            }
-        };
+    public Collection<String> getRequiredTypes() {
+        return LIFECYCLE_ANNOTATIONS.keySet();
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new UpdateBeforeAfterAnnotationsVisitor();
     }
 
@@ -58,11 +62,14 @@ public class UpdateBeforeAfterAnnotations extends Recipe {
         @Override
         public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
             //This visitor handles changing the method visibility for any method annotated with one of the four before/after
-            //annotations. It registers visitors that will sweep behind it making the type changes.
-            doAfterVisit(new ChangeType("org.junit.Before", "org.junit.jupiter.api.BeforeEach"));
-            doAfterVisit(new ChangeType("org.junit.After", "org.junit.jupiter.api.AfterEach"));
-            doAfterVisit(new ChangeType("org.junit.BeforeClass", "org.junit.jupiter.api.BeforeAll"));
-            doAfterVisit(new ChangeType("org.junit.AfterClass", "org.junit.jupiter.api.AfterAll"));
+            //annotations. It registers visitors that will sweep behind it making the type changes, but only for the
+            //annotation types this compilation unit actually refers to.
+            ReferencedTypes referencedTypes = ReferencedTypes.of(cu, ctx);
+            for (Map.Entry<String, String> annotation : LIFECYCLE_ANNOTATIONS.entrySet()) {
+                if (referencedTypes.uses(annotation.getKey())) {
+                    doAfterVisit(new ChangeType(annotation.getKey(), annotation.getValue()));
+                }
+            }
 
             return super.visitCompilationUnit(cu, ctx);
         }
@@ -16,23 +16,23 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.search.FindTypes;
+import org.openrewrite.java.testing.internal.DependencyEdits;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Space;
 import org.openrewrite.java.tree.TypeUtils;
 import org.openrewrite.marker.Markers;
 import org.openrewrite.marker.RecipeSearchResult;
-import org.openrewrite.maven.UpgradeDependencyVersion;
 
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
 
@@ -41,11 +41,11 @@ import static org.openrewrite.Tree.randomId;
 /**
  * Recipe for converting JUnit4 okhttp3 MockWebServer Rules with their JUnit5 equivalent.
  * Note this recipe upgrades okhttp3 to version 4.x there are a few backwards incompatible changes: https://square.github.io/okhttp/upgrading_to_okhttp_4/#backwards-incompatible-changes
- * - If MockWebServer Rule exists remove the Rule annotation and update okhttp3 to version 4.x
+ * - If MockWebServer Rule exists remove the Rule annotation and update okhttp3 to version 4.x in the pom of the module
  * - If AfterEach method exists insert a close statement for the MockWebServer and throws for IOException
  * - If AfterEach does not exist then insert new afterEachTest method closing MockWebServer
  */
-public class UpdateMockWebServer extends Recipe {
+public class UpdateMockWebServer extends ReferencedTypesRecipe {
     private static final AnnotationMatcher RULE_MATCHER = new AnnotationMatcher("@org.junit.Rule");
     private static final AnnotationMatcher AFTER_EACH_MATCHER = new AnnotationMatcher("@org.junit.jupiter.api.AfterEach");
     private static final String AFTER_EACH_FQN = "org.junit.jupiter.api.AfterEach";
@@ -54,16 +54,18 @@ public class UpdateMockWebServer extends Recipe {
     private static final String MOCK_WEBSERVER_RULE = "mock-web-server-rule";
     private static final String AFTER_EACH_METHOD = "after-each-method";
 
-    private static final ThreadLocal<JavaParser> OKHTTP3_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion().dependsOn(Arrays.asList(
-                    Parser.Input.fromString("package okhttp3.mockwebserver;" +
-                            "public final class MockWebServer extends java.io.Closeable {}"
-                    ),
-                    Parser.Input.fromString("package org.junit.jupiter.api;\n" +
-                            "public @interface AfterEach {}")
-            )).build());
+    private static final ThreadLocal<JavaParser> OKHTTP3_PARSER = StubParsers.fromSources(
+            "package okhttp3.mockwebserver;" +
+                    "public final class MockWebServer extends java.io.Closeable {}",
+            "package org.junit.jupiter.api;\n" +
+                    "public @interface AfterEach {}");
 
-    UUID id = randomId();
+    private final UUID id = randomId();
+
+    public UpdateMockWebServer() {
+        // The okhttp3 upgrade is recorded per class and applied once per pom.
+        doNext(new ApplyDependencyEdits());
+    }
 
     @Override
     public String getDisplayName() {
@@ -76,22 +78,26 @@ public class UpdateMockWebServer extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList(MOCK_WEB_SERVER_FQN);
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createApplicableTest() {
         return new JavaIsoVisitor<ExecutionContext>() {
             @Override
             public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-                J.CompilationUnit c = super.visitCompilationUnit(cu, executionContext);
-                if (!FindTypes.find(cu, "org.junit.Rule").isEmpty()
-                        && !FindTypes.find(cu, "okhttp3.mockwebserver.MockWebServer").isEmpty()) {
-                    c = c.withMarkers(c.getMarkers().addIfAbsent(new RecipeSearchResult(id, UpdateMockWebServer.this)));
+                ReferencedTypes referencedTypes = ReferencedTypes.of(cu, executionContext);
+                if (referencedTypes.uses("org.junit.Rule") && referencedTypes.uses(MOCK_WEB_SERVER_FQN)) {
+                    return cu.withMarkers(cu.getMarkers().addIfAbsent(new RecipeSearchResult(id, UpdateMockWebServer.this)));
                 }
-                return c;
+                return cu;
             }
         };
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
 
             @Override
@@ -137,7 +143,8 @@ public class UpdateMockWebServer extends Recipe {
                         cd = cd.withBody(body);
                     }
                     maybeRemoveImport("org.junit.Rule");
-                    doAfterVisit(new UpgradeDependencyVersion("com.squareup.okhttp3", "mockwebserver", "4.X", null, false));
+                    J.CompilationUnit cu = getCursor().dropParentUntil(J.CompilationUnit.class::isInstance).getValue();
+                    DependencyEdits.of(executionContext).upgrade(cu.getSourcePath(), "com.squareup.okhttp3", "mockwebserver", "4.X");
                 }
                 return cd;
             }
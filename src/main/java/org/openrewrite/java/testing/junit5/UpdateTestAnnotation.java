@@ -17,23 +17,24 @@ package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.java.AnnotationMatcher;
 import org.openrewrite.java.ChangeType;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Predicate;
 
-public class UpdateTestAnnotation extends Recipe {
+public class UpdateTestAnnotation extends ReferencedTypesRecipe {
 
     private static List<Parser.Input> assertThrowsDependsOn(Expression e) {
         List<Parser.Input> dependsOn = new ArrayList<>(3);
@@ -74,12 +75,12 @@ public class UpdateTestAnnotation extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.Test");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.Test");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new UpdateTestAnnotationVisitor();
     }
 
@@ -199,6 +200,14 @@ public class UpdateTestAnnotation extends Recipe {
         }
 
         private static class AddTimeoutAnnotationStep extends JavaIsoVisitor<ExecutionContext> {
+            private static final ThreadLocal<JavaParser> TIMEOUT_PARSER = StubParsers.fromSources(
+                    "package org.junit.jupiter.api;\n" +
+                            "import java.util.concurrent.TimeUnit;\n" +
+                            "public @interface Timeout {\n" +
+                            "    long value();\n" +
+                            "    TimeUnit unit() default TimeUnit.SECONDS;\n" +
+                            "}\n");
+
             private final J.MethodDeclaration scope;
             private final Expression expression;
 
@@ -214,16 +223,7 @@ public class UpdateTestAnnotation extends Recipe {
                 if (m.isScope(this.scope)) {
                     m = m.withTemplate(
                             template("@Timeout(#{any(long)})")
-                                    .javaParser(() -> JavaParser.fromJavaVersion()
-                                            .dependsOn(Collections.singletonList(Parser.Input.fromString(
-                                                    "package org.junit.jupiter.api;\n" +
-                                                            "import java.util.concurrent.TimeUnit;\n" +
-                                                            "public @interface Timeout {\n" +
-                                                            "    long value();\n" +
-                                                            "    TimeUnit unit() default TimeUnit.SECONDS;\n" +
-                                                            "}\n"
-                                            )))
-                                            .build())
+                                    .javaParser(TIMEOUT_PARSER::get)
                                     .imports("org.junit.jupiter.api.Timeout")
                                     .build(),
                             m.getCoordinates().addAnnotation(Comparator.comparing(J.Annotation::getSimpleName)),
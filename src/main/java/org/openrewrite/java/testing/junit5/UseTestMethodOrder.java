@@ -16,31 +16,27 @@
 package org.openrewrite.java.testing.junit5;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Parser;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.JavaParser;
 import org.openrewrite.java.JavaTemplate;
 import org.openrewrite.java.search.FindAnnotations;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.testing.internal.StubParsers;
 import org.openrewrite.java.tree.J;
 
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
-public class UseTestMethodOrder extends Recipe {
-    private static final ThreadLocal<JavaParser> TEST_METHOD_ORDER_PARSER = ThreadLocal.withInitial(() ->
-            JavaParser.fromJavaVersion()
-                    .dependsOn(Arrays.asList(
-                            Parser.Input.fromString("package org.junit.jupiter.api;\n" +
-                                    "public interface MethodOrderer {\n" +
-                                    "  public class MethodName {}\n" +
-                                    "}"),
-                            Parser.Input.fromString("package org.junit.jupiter.api;\n" +
-                                    "public @interface TestMethodOrder {}")
-                    ))
-                    .build()
+public class UseTestMethodOrder extends ReferencedTypesRecipe {
+    private static final ThreadLocal<JavaParser> TEST_METHOD_ORDER_PARSER = StubParsers.fromSources(
+            "package org.junit.jupiter.api;\n" +
+                    "public interface MethodOrderer {\n" +
+                    "  public class MethodName {}\n" +
+                    "}",
+            "package org.junit.jupiter.api;\n" +
+                    "public @interface TestMethodOrder {}"
     );
 
     @Override
@@ -54,12 +50,12 @@ public class UseTestMethodOrder extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.junit.FixMethodOrder");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.junit.FixMethodOrder");
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
             private final JavaTemplate testMethodOrder = template("@TestMethodOrder(MethodName.class)")
                     .javaParser(TEST_METHOD_ORDER_PARSER::get)
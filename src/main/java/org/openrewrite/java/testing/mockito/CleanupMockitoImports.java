@@ -16,16 +16,20 @@
 package org.openrewrite.java.testing.mockito;
 
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.OrderImports;
+import org.openrewrite.java.testing.internal.MeteredRecipe;
+import org.openrewrite.java.testing.internal.RequiresReferencedTypes;
 import org.openrewrite.java.tree.J;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * Orders imports and removes unused imports from classes which import symbols from the "org.mockito" package.
  */
-public class CleanupMockitoImports extends Recipe {
+public class CleanupMockitoImports extends MeteredRecipe implements RequiresReferencedTypes {
     @Override
     public String getDisplayName() {
         return "Cleanup Mockito imports";
@@ -37,7 +41,12 @@ public class CleanupMockitoImports extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.mockito.*");
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new CleanupMockitoImportsVisitor();
     }
 
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.ListUtils;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.search.FindAnnotations;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.tree.*;
+import org.openrewrite.marker.Markers;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * Turns local variables that a JUnit Jupiter test declares in the body of a loop and initializes with
+ * {@code Mockito.mock(Foo.class)} into {@code @Mock} fields, so that {@code MockitoExtension} creates the mock once per
+ * test rather than the test once per iteration.
+ * <p>
+ * Sharing one mock across iterations is only safe for a mock that serves as a dummy, so a local is only moved when no
+ * Mockito method, like {@code when}, {@code verify} or {@code doReturn(..).when}, is called with it or with a call on
+ * it, and when it does not outlive its iteration by being assigned, returned or passed to a {@code java.util} type.
+ * Locals declared directly in the body of a test are left alone, since a field would create them for every test of the
+ * class. A local is also left alone when its class is not extended with {@code MockitoExtension}, when the mocked class
+ * is not its declared type, or when its name is that of a field or of a moved local of another type.
+ */
+public class LocalMocksToMockFields extends ReferencedTypesRecipe {
+    private static final MethodMatcher MOCK = new MethodMatcher("org.mockito.Mockito mock(java.lang.Class)");
+    private static final String EXTEND_WITH_MOCKITO_EXTENSION = "@org.junit.jupiter.api.extension.ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)";
+    private static final JavaType.Class MOCK_TYPE = JavaType.Class.build("org.mockito.Mock");
+
+    @Override
+    public String getDisplayName() {
+        return "Use `@Mock` fields for mocks created in test loops";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replaces local variables that JUnit Jupiter tests run with `MockitoExtension` initialize with `Mockito.mock(..)` " +
+                "on every iteration of a loop by `@Mock` fields, when the mock is neither stubbed nor verified.";
+    }
+
+    @Override
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.mockito.junit.jupiter.MockitoExtension");
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new LocalMocksToMockFieldsVisitor();
+    }
+
+    public static class LocalMocksToMockFieldsVisitor extends JavaIsoVisitor<ExecutionContext> {
+        @Override
+        public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, ExecutionContext ctx) {
+            J.ClassDeclaration cd = super.visitClassDeclaration(classDecl, ctx);
+            //noinspection ConstantConditions
+            if (FindAnnotations.find(cd.withBody(null), EXTEND_WITH_MOCKITO_EXTENSION).isEmpty()) {
+                return cd;
+            }
+
+            Set<String> fieldNames = new HashSet<>();
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (statement instanceof J.VariableDeclarations) {
+                    for (J.VariableDeclarations.NamedVariable variable : ((J.VariableDeclarations) statement).getVariables()) {
+                        fieldNames.add(variable.getSimpleName());
+                    }
+                }
+            }
+
+            Map<String, J.VariableDeclarations> mocks = new LinkedHashMap<>();
+            Map<String, List<UUID>> declarations = new HashMap<>();
+            Set<String> conflicting = new HashSet<>(fieldNames);
+            for (Statement statement : cd.getBody().getStatements()) {
+                if (isTest(statement)) {
+                    List<J.VariableDeclarations> loopMocks = new ArrayList<>();
+                    new FindLoopMocks().visit(statement, loopMocks);
+                    for (J.VariableDeclarations mock : loopMocks) {
+                        String name = mock.getVariables().get(0).getSimpleName();
+                        J.VariableDeclarations existing = mocks.putIfAbsent(name, mock);
+                        if (existing != null && !Objects.equals(mockType(mock), mockType(existing))) {
+                            conflicting.add(name);
+                        }
+                        declarations.computeIfAbsent(name, n -> new ArrayList<>()).add(mock.getId());
+                    }
+                }
+            }
+            mocks.keySet().removeAll(conflicting);
+            if (mocks.isEmpty()) {
+                return cd;
+            }
+
+            Set<UUID> moved = new HashSet<>();
+            List<Statement> fields = new ArrayList<>(mocks.size());
+            for (Map.Entry<String, J.VariableDeclarations> mock : mocks.entrySet()) {
+                fields.add(mockField(mock.getValue()));
+                moved.addAll(declarations.get(mock.getKey()));
+            }
+            J.Block body = (J.Block) new JavaIsoVisitor<ExecutionContext>() {
+                @Override
+                public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+                    J.Block b = super.visitBlock(block, ctx);
+                    return b.withStatements(ListUtils.map(b.getStatements(), s -> moved.contains(s.getId()) ? null : s));
+                }
+            }.visit(cd.getBody(), ctx, getCursor());
+            cd = cd.withBody(body.withStatements(ListUtils.concatAll(fields, body.getStatements())));
+            maybeAddImport(MOCK_TYPE);
+            maybeRemoveImport("org.mockito.Mockito");
+            return maybeAutoFormat(classDecl, cd, ctx);
+        }
+
+        private static boolean isTest(Statement statement) {
+            if (!(statement instanceof J.MethodDeclaration) || ((J.MethodDeclaration) statement).getBody() == null) {
+                return false;
+            }
+            for (J.Annotation annotation : ((J.MethodDeclaration) statement).getLeadingAnnotations()) {
+                if (TypeUtils.isOfClassType(annotation.getType(), "org.junit.jupiter.api.Test")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return The fully qualified name of the mocked type if the statement declares one local variable of that
+         * type initialized with {@code mock(Type.class)}.
+         */
+        @Nullable
+        private static String mockType(Statement statement) {
+            if (!(statement instanceof J.VariableDeclarations)) {
+                return null;
+            }
+            J.VariableDeclarations local = (J.VariableDeclarations) statement;
+            if (local.getVariables().size() != 1 || !(local.getVariables().get(0).getInitializer() instanceof J.MethodInvocation)) {
+                return null;
+            }
+            J.MethodInvocation mock = (J.MethodInvocation) local.getVariables().get(0).getInitializer();
+            if (!MOCK.matches(mock) || !(mock.getArguments().get(0) instanceof J.FieldAccess)) {
+                return null;
+            }
+            J.FieldAccess classLiteral = (J.FieldAccess) mock.getArguments().get(0);
+            JavaType.FullyQualified mockedType = TypeUtils.asFullyQualified(classLiteral.getTarget().getType());
+            JavaType.FullyQualified declaredType = local.getTypeAsFullyQualified();
+            if (!"class".equals(classLiteral.getSimpleName()) || mockedType == null || declaredType == null ||
+                    !mockedType.getFullyQualifiedName().equals(declaredType.getFullyQualifiedName())) {
+                return null;
+            }
+            return mockedType.getFullyQualifiedName();
+        }
+
+        private static J.VariableDeclarations mockField(J.VariableDeclarations local) {
+            J.Annotation mockAnnotation = new J.Annotation(
+                    randomId(),
+                    Space.EMPTY,
+                    Markers.EMPTY,
+                    J.Identifier.build(randomId(), Space.EMPTY, Markers.EMPTY, MOCK_TYPE.getClassName(), MOCK_TYPE),
+                    null
+            );
+            //noinspection ConstantConditions
+            return local
+                    .withId(randomId())
+                    .withPrefix(Space.format("\n"))
+                    .withLeadingAnnotations(Collections.singletonList(mockAnnotation))
+                    .withModifiers(Collections.emptyList())
+                    .withTypeExpression(local.getTypeExpression().withPrefix(Space.format("\n")))
+                    .withVariables(ListUtils.map(local.getVariables(), v -> v.withInitializer(null)));
+        }
+    }
+
+    /**
+     * Collects the mock locals declared directly in the body of a loop that only serve as dummies within it.
+     */
+    private static class FindLoopMocks extends JavaIsoVisitor<List<J.VariableDeclarations>> {
+        @Override
+        public J.ForLoop visitForLoop(J.ForLoop forLoop, List<J.VariableDeclarations> mocks) {
+            collect(forLoop.getBody(), mocks);
+            return super.visitForLoop(forLoop, mocks);
+        }
+
+        @Override
+        public J.ForEachLoop visitForEachLoop(J.ForEachLoop forLoop, List<J.VariableDeclarations> mocks) {
+            collect(forLoop.getBody(), mocks);
+            return super.visitForEachLoop(forLoop, mocks);
+        }
+
+        @Override
+        public J.WhileLoop visitWhileLoop(J.WhileLoop whileLoop, List<J.VariableDeclarations> mocks) {
+            collect(whileLoop.getBody(), mocks);
+            return super.visitWhileLoop(whileLoop, mocks);
+        }
+
+        @Override
+        public J.DoWhileLoop visitDoWhileLoop(J.DoWhileLoop doWhileLoop, List<J.VariableDeclarations> mocks) {
+            collect(doWhileLoop.getBody(), mocks);
+            return super.visitDoWhileLoop(doWhileLoop, mocks);
+        }
+
+        private static void collect(Statement loopBody, List<J.VariableDeclarations> mocks) {
+            if (!(loopBody instanceof J.Block)) {
+                return;
+            }
+            for (Statement statement : ((J.Block) loopBody).getStatements()) {
+                String mockType = LocalMocksToMockFieldsVisitor.mockType(statement);
+                if (mockType != null) {
+                    J.VariableDeclarations mock = (J.VariableDeclarations) statement;
+                    AtomicBoolean dummy = new AtomicBoolean(true);
+                    new IsDummy(mock.getVariables().get(0).getSimpleName(), mockType).visit(loopBody, dummy);
+                    if (dummy.get()) {
+                        mocks.add(mock);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the flag it is given if the named mock is stubbed, verified or can outlive an iteration of the loop.
+     */
+    private static class IsDummy extends JavaIsoVisitor<AtomicBoolean> {
+        private final String name;
+        private final String mockType;
+
+        private IsDummy(String name, String mockType) {
+            this.name = name;
+            this.mockType = mockType;
+        }
+
+        @Override
+        public J.Identifier visitIdentifier(J.Identifier identifier, AtomicBoolean dummy) {
+            if (!identifier.getSimpleName().equals(name) || !TypeUtils.isOfClassType(identifier.getType(), mockType)) {
+                return identifier;
+            }
+
+            J parent = getCursor().dropParentUntil(J.class::isInstance).getValue();
+            if (parent instanceof J.VariableDeclarations.NamedVariable ||
+                    parent instanceof J.FieldAccess && ((J.FieldAccess) parent).getName() == identifier ||
+                    parent instanceof J.MethodInvocation && ((J.MethodInvocation) parent).getName() == identifier) {
+                return identifier;
+            }
+            if (parent instanceof J.Assignment || parent instanceof J.Return ||
+                    parent instanceof J.MethodInvocation && isDeclaredIn((J.MethodInvocation) parent, "java.util.") &&
+                            ((J.MethodInvocation) parent).getArguments().stream().anyMatch(arg -> arg == identifier)) {
+                dummy.set(false);
+                return identifier;
+            }
+            for (Cursor c = getCursor().getParent(); c != null; c = c.getParent()) {
+                if (c.getValue() instanceof J.MethodInvocation && isDeclaredIn(c.getValue(), "org.mockito.")) {
+                    dummy.set(false);
+                    break;
+                }
+            }
+            return identifier;
+        }
+
+        private static boolean isDeclaredIn(J.MethodInvocation method, String packagePrefix) {
+            return method.getType() != null &&
+                    method.getType().getDeclaringType().getFullyQualifiedName().startsWith(packagePrefix);
+        }
+    }
+}
@@ -17,16 +17,18 @@ package org.openrewrite.java.testing.mockito;
 
 import org.openrewrite.Cursor;
 import org.openrewrite.ExecutionContext;
-import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.ChangeMethodTargetToStatic;
 import org.openrewrite.java.DeleteStatement;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.MethodMatcher;
-import org.openrewrite.java.search.UsesType;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
 import org.openrewrite.java.tree.J;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * In Mockito 1 you use a code snippet like:
  * <p>
@@ -39,7 +41,7 @@ import org.openrewrite.java.tree.J;
  * This recipe makes a best-effort attempt to remove MockUtil instances, but if someone did something unexpected like
  * subclassing MockUtils that will not be handled and will have to be hand-remediated.
  */
-public class MockUtilsToStatic extends Recipe {
+public class MockUtilsToStatic extends ReferencedTypesRecipe {
 
     @Override
     public String getDisplayName() {
@@ -52,13 +54,13 @@ public class MockUtilsToStatic extends Recipe {
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
         return new MockUtilsToStaticVisitor();
     }
 
     @Override
-    protected TreeVisitor<?, ExecutionContext> getSingleSourceApplicableTest() {
-        return new UsesType<>("org.mockito.internal.util.MockUtil");
+    public Collection<String> getRequiredTypes() {
+        return Collections.singletonList("org.mockito.internal.util.MockUtil");
     }
 
     public static class MockUtilsToStaticVisitor extends JavaVisitor<ExecutionContext> {
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Option;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.Validated;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.testing.internal.ReferencedTypesRecipe;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Applies a table of Mockito type and method renames. Method renames are applied by this recipe's own visitor as it
+ * passes over a compilation unit: each method invocation and static import is only matched against the entries of the
+ * table for its declaring type and that type's supertypes. A type rename is delegated to {@link ChangeType}, which
+ * rewrites imports and qualified references, and only for the compilation units that the {@link ReferencedTypes} index
+ * says refer to the old type. So a longer table costs next to nothing for the compilation units that do not use the
+ * renamed APIs.
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class MockitoRenames extends ReferencedTypesRecipe {
+    private static final Pattern FULLY_QUALIFIED_NAME = Pattern.compile("[\\w$]+(\\.[\\w$]+)*");
+
+    @Option(displayName = "Method renames",
+            description = "New method names by method pattern. Method renames are applied before type renames, so patterns refer to the old types.",
+            example = "org.mockito.Matchers anyVararg(): any",
+            required = false)
+    @Nullable
+    Map<String, String> methodRenames;
+
+    @Option(displayName = "Type renames",
+            description = "New fully qualified type names by old fully qualified type name.",
+            example = "org.mockito.Matchers: org.mockito.ArgumentMatchers",
+            required = false)
+    @Nullable
+    Map<String, String> typeRenames;
+
+    @JsonCreator
+    public MockitoRenames(@Nullable Map<String, String> methodRenames, @Nullable Map<String, String> typeRenames) {
+        this.methodRenames = methodRenames;
+        this.typeRenames = typeRenames;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Rename Mockito types and methods";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Applies a table of Mockito type and method renames in one pass over each compilation unit that uses them.";
+    }
+
+    @Override
+    public Validated validate() {
+        Validated validated = super.validate();
+        if (methodRenames != null) {
+            validated = validated.and(Validated.test(
+                    "methodRenames",
+                    "Method patterns must name the declaring type by its fully qualified name, without wildcards",
+                    methodRenames.keySet(),
+                    patterns -> patterns.stream().allMatch(p -> FULLY_QUALIFIED_NAME.matcher(declaringType(p)).matches())));
+        }
+        return validated;
+    }
+
+    @Override
+    public Collection<String> getRequiredTypes() {
+        Set<String> types = new LinkedHashSet<>(typeRenames == null ? Collections.emptySet() : typeRenames.keySet());
+        if (methodRenames != null) {
+            for (String methodPattern : methodRenames.keySet()) {
+                types.add(declaringType(methodPattern));
+            }
+        }
+        return types;
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> createVisitor() {
+        return new MockitoRenamesVisitor(
+                methodRenames == null ? Collections.emptyMap() : methodRenames,
+                typeRenames == null ? Collections.emptyMap() : typeRenames);
+    }
+
+    private static String declaringType(String methodPattern) {
+        return methodPattern.trim().split("\\s+")[0];
+    }
+
+    public static class MockitoRenamesVisitor extends JavaIsoVisitor<ExecutionContext> {
+        private final Map<String, List<MethodRename>> methodRenamesByDeclaringType = new HashMap<>();
+        private final Map<String, String> typeRenames;
+
+        public MockitoRenamesVisitor(Map<String, String> methodRenames, Map<String, String> typeRenames) {
+            for (Map.Entry<String, String> methodRename : methodRenames.entrySet()) {
+                methodRenamesByDeclaringType.computeIfAbsent(declaringType(methodRename.getKey()), t -> new ArrayList<>())
+                        .add(new MethodRename(methodRename.getKey(), methodRename.getValue()));
+            }
+            this.typeRenames = typeRenames;
+        }
+
+        @Override
+        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            J.CompilationUnit c = super.visitCompilationUnit(cu, ctx);
+            ReferencedTypes referencedTypes = ReferencedTypes.of(cu, ctx);
+            for (Map.Entry<String, String> typeRename : typeRenames.entrySet()) {
+                if (referencedTypes.uses(typeRename.getKey())) {
+                    doAfterVisit(new ChangeType(typeRename.getKey(), typeRename.getValue()));
+                }
+            }
+            return c;
+        }
+
+        @Override
+        public J.Import visitImport(J.Import _import, ExecutionContext ctx) {
+            J.Import i = super.visitImport(_import, ctx);
+            JavaType.FullyQualified type = TypeUtils.asFullyQualified(i.getQualid().getTarget().getType());
+            if (!i.isStatic() || type == null) {
+                return i;
+            }
+
+            // Every overload that the import brings in has to be renamed alike.
+            String newMethodName = null;
+            for (MethodRename candidate : candidates(type)) {
+                if (candidate.methodName.equals(i.getQualid().getSimpleName())) {
+                    if (newMethodName != null && !newMethodName.equals(candidate.newMethodName)) {
+                        return i;
+                    }
+                    newMethodName = candidate.newMethodName;
+                }
+            }
+            return newMethodName == null ? i :
+                    i.withQualid(i.getQualid().withName(i.getQualid().getName().withName(newMethodName)));
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
+            J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
+            JavaType.Method type = m.getType();
+            if (type == null) {
+                return m;
+            }
+            for (MethodRename candidate : candidates(type.getDeclaringType())) {
+                if (!m.getSimpleName().equals(candidate.newMethodName) && candidate.matcher.matches(m)) {
+                    return m.withName(m.getName().withName(candidate.newMethodName))
+                            .withType(type.withName(candidate.newMethodName));
+                }
+            }
+            return m;
+        }
+
+        /**
+         * @return The method renames whose pattern names the type or one of its supertypes, in table order per type.
+         */
+        private List<MethodRename> candidates(JavaType.FullyQualified type) {
+            List<MethodRename> candidates = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            Deque<JavaType.FullyQualified> types = new ArrayDeque<>();
+            types.add(type);
+            while (!types.isEmpty()) {
+                JavaType.FullyQualified t = types.poll();
+                if (!seen.add(t.getFullyQualifiedName())) {
+                    continue;
+                }
+                candidates.addAll(methodRenamesByDeclaringType.getOrDefault(t.getFullyQualifiedName(), Collections.emptyList()));
+                if (t.getSupertype() != null) {
+                    types.add(t.getSupertype());
+                }
+                types.addAll(t.getInterfaces());
+            }
+            return candidates;
+        }
+    }
+
+    private static class MethodRename {
+        private final MethodMatcher matcher;
+        private final String methodName;
+        private final String newMethodName;
+
+        private MethodRename(String methodPattern, String newMethodName) {
+            this.matcher = new MethodMatcher(methodPattern);
+            String signature = methodPattern.trim().split("\\s+", 2)[1];
+            this.methodName = signature.substring(0, signature.indexOf('(')).trim();
+            this.newMethodName = newMethodName;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.testing.internal.MavenModules;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Runs a recipe over the source files of a project, skipping the files whose result is already in a {@link ResultCache}.
+ * Skipped files are neither parsed nor visited.
+ * <p>
+ * Most recipes of this module only look at the file they change, so its path and content are enough of a key, and a
+ * change to one file runs the recipe over just that file again. The exceptions are the {@link CrossFileRecipes}, like
+ * the Maven steps that add a dependency only if a module's Java sources use it, which need every source of the module in
+ * the same run.
+ * When the recipe list includes one, the key of a source file also covers the content of every other file of its
+ * module, as {@link ParallelRecipeRunner} partitions them, and a change to any one of them, or a missing entry, runs
+ * the recipe over the whole module again. Source files outside any module, like those of a project without poms, are
+ * keyed together as one more module. Only such recipes can add files, so the files the recipe generated are cached
+ * under the module too, and replayed with the results of its source files.
+ * <p>
+ * Java source files that the recipe's {@link SourcePrefilter} rules out are skipped without consulting the cache.
+ */
+public class CachingRecipeRunner {
+    /**
+     * A pom at the root of the project contains every source file, so when any source file is outside of all modules
+     * the empty path is free to stand for the group of those files.
+     */
+    private static final Path NO_MODULE = Paths.get("");
+
+    private final ResultCache cache;
+
+    public CachingRecipeRunner(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @param projectDir  The directory the source paths are relative to, which the parser must also parse relative to.
+     * @param sourcePaths The source files to run the recipe over.
+     * @param parser      Parses the source files that are not in the cache.
+     * @return The diffs of the source files the recipe changed, whether from the cache or from this run, keyed by source
+     * path relative to the project directory and in the order of the source paths. Files the recipe generated follow
+     * in path order.
+     */
+    public Map<Path, String> run(Recipe recipe, Path projectDir, List<Path> sourcePaths,
+                                 Function<List<Path>, List<? extends SourceFile>> parser, ExecutionContext ctx) {
+        String recipeHash = ResultCache.recipeHash(recipe);
+        SourcePrefilter prefilter = SourcePrefilter.of(recipe);
+
+        Map<Path, String> contentHashes = new LinkedHashMap<>();
+        Set<Path> unchangeable = new HashSet<>();
+        for (Path sourcePath : sourcePaths) {
+            Path relativePath = projectDir.relativize(projectDir.resolve(sourcePath));
+            try {
+                byte[] content = Files.readAllBytes(projectDir.resolve(relativePath));
+                contentHashes.put(relativePath, ResultCache.contentHash(content));
+                if (!prefilter.mightChange(relativePath, new String(content, StandardCharsets.UTF_8))) {
+                    unchangeable.add(relativePath);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean crossFile = !CrossFileRecipes.find(recipe).isEmpty();
+        List<Path> moduleRoots = MavenModules.roots(contentHashes.keySet());
+        Map<Path, String> moduleHashes = crossFile ? moduleHashes(moduleRoots, contentHashes) : Collections.emptyMap();
+        Map<Path, String> keys = new HashMap<>();
+        for (Map.Entry<Path, String> contentHash : contentHashes.entrySet()) {
+            String fileKey = fileKey(contentHash.getKey(), contentHash.getValue());
+            keys.put(contentHash.getKey(), crossFile ?
+                    fileKey + ':' + moduleHashes.get(module(moduleRoots, contentHash.getKey())) :
+                    fileKey);
+        }
+
+        Map<Path, String> diffs = new LinkedHashMap<>();
+        Set<Path> missedModules = new HashSet<>();
+        for (Path sourcePath : contentHashes.keySet()) {
+            String diff = unchangeable.contains(sourcePath) ? "" : cache.get(keys.get(sourcePath), recipeHash);
+            diffs.put(sourcePath, diff);
+            if (diff == null && crossFile) {
+                missedModules.add(module(moduleRoots, sourcePath));
+            }
+        }
+
+        Map<Path, String> generated = new TreeMap<>();
+        for (Map.Entry<Path, String> moduleHash : moduleHashes.entrySet()) {
+            if (!missedModules.contains(moduleHash.getKey())) {
+                String cached = cache.get(generatedKey(moduleHash.getValue()), recipeHash);
+                if (cached == null) {
+                    missedModules.add(moduleHash.getKey());
+                } else {
+                    generated.putAll(decode(cached));
+                }
+            }
+        }
+
+        List<Path> misses = new ArrayList<>();
+        for (Map.Entry<Path, String> diff : diffs.entrySet()) {
+            if (diff.getValue() == null || (!unchangeable.contains(diff.getKey()) &&
+                    missedModules.contains(module(moduleRoots, diff.getKey())))) {
+                misses.add(diff.getKey());
+            }
+        }
+        if (misses.isEmpty()) {
+            diffs.values().removeIf(String::isEmpty);
+            diffs.putAll(generated);
+            return diffs;
+        }
+
+        List<Path> toParse = new ArrayList<>(misses.size());
+        for (Path miss : misses) {
+            toParse.add(projectDir.resolve(miss));
+        }
+        Map<Path, String> missed = new HashMap<>();
+        Map<Path, Map<Path, String>> generatedByModule = new HashMap<>();
+        for (Result result : recipe.run(parser.apply(toParse), ctx)) {
+            if (result.getBefore() == null) {
+                //noinspection ConstantConditions
+                Path generatedPath = result.getAfter().getSourcePath();
+                generated.put(generatedPath, result.diff());
+                generatedByModule.computeIfAbsent(module(moduleRoots, generatedPath), m -> new TreeMap<>())
+                        .put(generatedPath, result.diff());
+            } else {
+                missed.put(result.getBefore().getSourcePath(), result.diff());
+            }
+        }
+        for (Path miss : misses) {
+            String diff = missed.getOrDefault(miss, "");
+            cache.put(keys.get(miss), recipeHash, diff);
+            diffs.put(miss, diff);
+        }
+        for (Path module : missedModules) {
+            cache.put(generatedKey(moduleHashes.get(module)), recipeHash,
+                    encode(generatedByModule.getOrDefault(module, Collections.emptyMap())));
+        }
+
+        diffs.values().removeIf(diff -> diff == null || diff.isEmpty());
+        diffs.putAll(generated);
+        return diffs;
+    }
+
+    private static String fileKey(Path sourcePath, String contentHash) {
+        return ResultCache.contentHash((sourcePath + "=" + contentHash).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String generatedKey(String moduleHash) {
+        return "generated:" + moduleHash;
+    }
+
+    private static Path module(List<Path> moduleRoots, Path sourcePath) {
+        Path module = MavenModules.module(moduleRoots, sourcePath);
+        return module == null ? NO_MODULE : module;
+    }
+
+    /**
+     * @return A hash over the paths and content hashes of every file of each module.
+     */
+    private static Map<Path, String> moduleHashes(List<Path> moduleRoots, Map<Path, String> contentHashes) {
+        Map<Path, StringBuilder> moduleContents = new HashMap<>();
+        for (Map.Entry<Path, String> contentHash : new TreeMap<>(contentHashes).entrySet()) {
+            moduleContents.computeIfAbsent(module(moduleRoots, contentHash.getKey()), m -> new StringBuilder())
+                    .append(contentHash.getKey()).append('=').append(contentHash.getValue()).append('\n');
+        }
+
+        Map<Path, String> moduleHashes = new HashMap<>();
+        moduleContents.forEach((module, contents) -> moduleHashes.put(module,
+                ResultCache.contentHash(contents.toString().getBytes(StandardCharsets.UTF_8))));
+        return moduleHashes;
+    }
+
+    /**
+     * Writes the diffs of generated files as a path line and a length line ahead of each diff.
+     */
+    private static String encode(Map<Path, String> diffs) {
+        StringBuilder encoded = new StringBuilder();
+        diffs.forEach((path, diff) -> encoded.append(path).append('\n').append(diff.length()).append('\n').append(diff));
+        return encoded.toString();
+    }
+
+    private static Map<Path, String> decode(String encoded) {
+        Map<Path, String> diffs = new TreeMap<>();
+        int i = 0;
+        while (i < encoded.length()) {
+            int pathEnd = encoded.indexOf('\n', i);
+            int lengthEnd = encoded.indexOf('\n', pathEnd + 1);
+            int length = Integer.parseInt(encoded.substring(pathEnd + 1, lengthEnd));
+            diffs.put(Paths.get(encoded.substring(i, pathEnd)), encoded.substring(lengthEnd + 1, lengthEnd + 1 + length));
+            i = lengthEnd + 1 + length;
+        }
+        return diffs;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.java.testing.junit5.ApplyDependencyEdits;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the recipes that look across source files, whose results for one source file can depend on the others in the
+ * same run. They are the recipes that override {@link Recipe}'s {@code visit(List, ExecutionContext)}, which is handed
+ * every source file of a run, and the Maven recipes with an {@code onlyIfUsing} option, which look for a type in the
+ * Java sources. The runners of this package use them to decide which source files must be run together.
+ */
+final class CrossFileRecipes {
+    private CrossFileRecipes() {
+    }
+
+    /**
+     * @return The recipe and the recipes in its recipe list that look across source files.
+     */
+    static List<Recipe> find(Recipe recipe) {
+        List<Recipe> crossFile = new ArrayList<>();
+        collect(recipe, crossFile, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return crossFile;
+    }
+
+    /**
+     * @return Whether the recipe only changes poms. Such a recipe sees every pom together with a summary of the Java
+     * sources in the pom run of {@link StreamingRecipeRunner}, and {@link ApplyDependencyEdits} finds the upgrades that
+     * earlier batches recorded in the {@link ExecutionContext}.
+     */
+    static boolean onlyChangesPoms(Recipe recipe) {
+        return recipe.getClass().getName().startsWith("org.openrewrite.maven.") || recipe instanceof ApplyDependencyEdits;
+    }
+
+    private static void collect(Recipe recipe, List<Recipe> crossFile, Set<Recipe> seen) {
+        if (!seen.add(recipe)) {
+            return;
+        }
+        List<String> onlyIfUsing = RecipeOptions.get(recipe, "onlyIfUsing");
+        if (visitsSourceSet(recipe.getClass()) || onlyIfUsing == null || !onlyIfUsing.isEmpty()) {
+            crossFile.add(recipe);
+        }
+        for (Recipe next : recipe.getRecipeList()) {
+            collect(next, crossFile, seen);
+        }
+    }
+
+    static boolean visitsSourceSet(Class<?> recipeClass) {
+        for (Class<?> c = recipeClass; c != null && c != Recipe.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("visit", List.class, ExecutionContext.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // not overridden here
+            }
+        }
+        return false;
+    }
+}
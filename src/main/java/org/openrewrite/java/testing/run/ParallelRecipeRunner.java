@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.testing.internal.DependencyEdits;
+import org.openrewrite.java.testing.internal.MavenModules;
+import org.openrewrite.java.testing.junit5.ApplyDependencyEdits;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs a recipe over partitions of the source files concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * Recipes that look across source files, like the Maven steps of {@code JUnit4to5Migration} that add a dependency only
+ * if a module's Java sources use it, need a module's pom and sources in the same run. So when the source files include
+ * poms, each partition is one Maven module: a pom together with the sources below it that are not below a nested
+ * module's pom. When no recipe of the recipe list looks across source files, a module with more than its share of the
+ * source files is split into chunks of that share instead, so that one large module does not keep a single thread
+ * busy while the others are idle. Without poms the sources are split into as many slices as the pool is parallel.
+ * <p>
+ * Results come back in the order of the source files they were produced from, followed by any generated files in
+ * path order, so they do not depend on scheduling. The {@link ExecutionContext} is shared by every partition and must
+ * be safe for concurrent use. Dependency upgrades that a partition recorded for a pom outside of it, like a parent pom
+ * that manages the version, are applied once every partition has run.
+ */
+public class ParallelRecipeRunner {
+    private final ForkJoinPool pool;
+
+    public ParallelRecipeRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelRecipeRunner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public List<Result> run(Recipe recipe, List<? extends SourceFile> sourceFiles, ExecutionContext ctx) {
+        RecipeState.checkStateless(recipe);
+
+        List<ForkJoinTask<List<Result>>> tasks = new ArrayList<>();
+        boolean splitModules = CrossFileRecipes.find(recipe).isEmpty();
+        for (List<SourceFile> partition : partition(sourceFiles, pool.getParallelism(), splitModules)) {
+            tasks.add(pool.submit(() -> recipe.run(partition, ctx)));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (ForkJoinTask<List<Result>> task : tasks) {
+            results.addAll(task.join());
+        }
+        if (!DependencyEdits.of(ctx).isEmpty()) {
+            results = applyDependencyEdits(sourceFiles, results, ctx);
+        }
+
+        Map<UUID, Integer> order = new HashMap<>();
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            order.put(sourceFiles.get(i).getId(), i);
+        }
+        results.sort(Comparator.<Result>comparingInt(r -> r.getBefore() == null ?
+                Integer.MAX_VALUE :
+                order.getOrDefault(r.getBefore().getId(), Integer.MAX_VALUE))
+                .thenComparing(r -> r.getAfter() == null ? "" : r.getAfter().getSourcePath().toString()));
+        return results;
+    }
+
+    /**
+     * Applies the dependency upgrades that a partition recorded for a pom it did not contain, like the parent pom that
+     * manages a dependency version for the module of the partition, to the poms as the partitions left them.
+     */
+    private static List<Result> applyDependencyEdits(List<? extends SourceFile> sourceFiles, List<Result> results,
+                                                     ExecutionContext ctx) {
+        Map<UUID, Integer> resultIndexes = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getBefore() != null) {
+                resultIndexes.put(results.get(i).getBefore().getId(), i);
+            }
+        }
+
+        List<SourceFile> poms = new ArrayList<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            if (MavenModules.isPom(sourceFile.getSourcePath())) {
+                Integer index = resultIndexes.get(sourceFile.getId());
+                SourceFile current = index == null ? sourceFile : results.get(index).getAfter();
+                if (current != null) {
+                    poms.add(current);
+                }
+            }
+        }
+        if (poms.isEmpty()) {
+            return results;
+        }
+
+        List<Result> merged = new ArrayList<>(results);
+        for (Result edit : new ApplyDependencyEdits().run(poms, ctx)) {
+            //noinspection ConstantConditions
+            Integer index = resultIndexes.get(edit.getBefore().getId());
+            if (index == null) {
+                merged.add(edit);
+            } else {
+                Result partitionResult = results.get(index);
+                Set<Recipe> recipes = new LinkedHashSet<>(partitionResult.getRecipesThatMadeChanges());
+                recipes.addAll(edit.getRecipesThatMadeChanges());
+                merged.set(index, new Result(partitionResult.getBefore(), edit.getAfter(), recipes));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * @param splitModules Whether a module with more source files than its share of the pool may be split into chunks
+     *                     of that share, because no recipe needs a module's pom and sources in the same run.
+     */
+    static List<List<SourceFile>> partition(List<? extends SourceFile> sourceFiles, int parallelism, boolean splitModules) {
+        List<Path> sourcePaths = new ArrayList<>(sourceFiles.size());
+        for (SourceFile sourceFile : sourceFiles) {
+            sourcePaths.add(sourceFile.getSourcePath());
+        }
+        List<Path> moduleRoots = MavenModules.roots(sourcePaths);
+
+        List<List<SourceFile>> partitions = new ArrayList<>();
+        if (moduleRoots.isEmpty()) {
+            int slices = Math.max(1, Math.min(parallelism, sourceFiles.size()));
+            for (int slice = 0; slice < slices; slice++) {
+                partitions.add(new ArrayList<>(sourceFiles.subList(
+                        slice * sourceFiles.size() / slices,
+                        (slice + 1) * sourceFiles.size() / slices)));
+            }
+            return partitions;
+        }
+
+        Map<Path, List<SourceFile>> byModule = new LinkedHashMap<>();
+        List<SourceFile> outsideModules = new ArrayList<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            Path module = MavenModules.module(moduleRoots, sourceFile.getSourcePath());
+            if (module == null) {
+                outsideModules.add(sourceFile);
+            } else {
+                byModule.computeIfAbsent(module, m -> new ArrayList<>()).add(sourceFile);
+            }
+        }
+        List<List<SourceFile>> modules = new ArrayList<>(byModule.values());
+        if (!outsideModules.isEmpty()) {
+            modules.add(outsideModules);
+        }
+
+        int share = Math.max(1, (sourceFiles.size() + parallelism - 1) / parallelism);
+        for (List<SourceFile> module : modules) {
+            if (!splitModules || module.size() <= share) {
+                partitions.add(module);
+                continue;
+            }
+            for (int from = 0; from < module.size(); from += share) {
+                partitions.add(new ArrayList<>(module.subList(from, Math.min(from + share, module.size()))));
+            }
+        }
+        return partitions;
+    }
+}
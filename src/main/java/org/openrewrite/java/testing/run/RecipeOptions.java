@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the option values of recipes that are not declared by this module, like the {@code onlyIfUsing} of
+ * {@code org.openrewrite.maven.AddDependency}. Only fields annotated with {@link Option} count as options, and their
+ * values are read through the public getter that rewrite serializes recipes with, never from the field itself.
+ */
+final class RecipeOptions {
+    private RecipeOptions() {
+    }
+
+    /**
+     * @return Whether the recipe declares the option.
+     */
+    static boolean has(Recipe recipe, String option) {
+        return option(recipe.getClass(), option) != null;
+    }
+
+    /**
+     * @return The values of the recipe's option, with a collection valued option flattened, an empty list if the
+     * recipe does not declare the option or it is not set, or null if the option is declared but has no public getter
+     * to read it with.
+     */
+    @Nullable
+    static List<String> get(Recipe recipe, String option) {
+        Field field = option(recipe.getClass(), option);
+        if (field == null) {
+            return Collections.emptyList();
+        }
+
+        Object value;
+        try {
+            Method getter = recipe.getClass().getMethod((field.getType() == boolean.class ? "is" : "get") +
+                    Character.toUpperCase(option.charAt(0)) + option.substring(1));
+            value = getter.invoke(recipe);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+
+        if (value instanceof Collection) {
+            List<String> values = new ArrayList<>();
+            for (Object v : (Collection<?>) value) {
+                values.add(v.toString());
+            }
+            return values;
+        }
+        return value == null ? Collections.emptyList() : Collections.singletonList(value.toString());
+    }
+
+    @Nullable
+    private static Field option(Class<?> recipeClass, String option) {
+        for (Class<?> c = recipeClass; c != null && c != Recipe.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getName().equals(option) && field.isAnnotationPresent(Option.class)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+}
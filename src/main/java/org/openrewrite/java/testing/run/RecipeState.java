@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.Recipe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that the recipes of this module can be shared by threads visiting different source files. A recipe is shared
+ * state: every thread gets its visitors from the same instance. Visitors must therefore not be able to reach mutable
+ * fields of the recipe. {@link ThreadLocal} fields are confined to one thread by construction and are accepted.
+ */
+public final class RecipeState {
+    private static final String MODULE_PACKAGE = "org.openrewrite.java.testing";
+
+    private RecipeState() {
+    }
+
+    /**
+     * @param recipe A recipe, which is checked along with every recipe in its recipe list.
+     * @throws IllegalStateException If a recipe of this module declares a mutable instance field.
+     */
+    public static void checkStateless(Recipe recipe) {
+        List<String> mutableFields = mutableFields(recipe);
+        if (!mutableFields.isEmpty()) {
+            throw new IllegalStateException("Recipes cannot be run in parallel because they hold mutable state in " +
+                    String.join(", ", mutableFields));
+        }
+    }
+
+    /**
+     * @return The mutable instance fields declared by recipes of this module, as {@code ClassName.field}.
+     */
+    public static List<String> mutableFields(Recipe recipe) {
+        List<String> mutableFields = new ArrayList<>();
+        collectMutableFields(recipe, mutableFields, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return mutableFields;
+    }
+
+    private static void collectMutableFields(Recipe recipe, List<String> mutableFields, Set<Recipe> seen) {
+        if (!seen.add(recipe)) {
+            return;
+        }
+        for (Class<?> c = recipe.getClass(); c != null && c != Recipe.class; c = c.getSuperclass()) {
+            if (!c.getName().startsWith(MODULE_PACKAGE)) {
+                continue;
+            }
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || field.isSynthetic() || ThreadLocal.class.isAssignableFrom(field.getType())) {
+                    continue;
+                }
+                if (!Modifier.isFinal(modifiers)) {
+                    mutableFields.add(c.getName() + "." + field.getName());
+                }
+            }
+        }
+        for (Recipe next : recipe.getRecipeList()) {
+            collectMutableFields(next, mutableFields, seen);
+        }
+    }
+}
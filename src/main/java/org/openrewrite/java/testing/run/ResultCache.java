@@ -0,0 +1,250 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.Option;
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk store of recipe results, keyed by a hash of a source file's content and a hash of the recipe's
+ * configuration. An entry is either empty, meaning the recipe did not change the file, or holds the diff the recipe
+ * produced for it.
+ * <p>
+ * Entries are files under the cache directory. Reading an entry touches its modification time, and once the entries
+ * take up more than the size bound the least recently used are deleted until they fit again. Each entry is counted as
+ * at least one block of {@value #BLOCK_SIZE} bytes so that a cache of mostly empty "no change" entries is bounded too.
+ * Several processes can share a directory: entries are written to a temporary file and moved into place, and an entry
+ * deleted by another process is treated as a miss.
+ */
+public class ResultCache {
+    static final int BLOCK_SIZE = 4096;
+    private static final String ENTRY_SUFFIX = ".diff";
+
+    private final Path directory;
+    private final long maximumSize;
+    private long size = -1;
+
+    public ResultCache(Path directory, long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return The cached diff, which is empty when the recipe made no change, or null on a miss.
+     */
+    @Nullable
+    public synchronized String get(String contentHash, String recipeHash) {
+        Path entry = entry(contentHash, recipeHash);
+        try {
+            String diff = new String(Files.readAllBytes(entry), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return diff;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param diff The diff the recipe produced, or an empty string when it made no change.
+     */
+    public synchronized void put(String contentHash, String recipeHash, String diff) {
+        Path entry = entry(contentHash, recipeHash);
+        byte[] bytes = diff.getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path tmp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            Files.write(tmp, bytes);
+            long current = size();
+            long replaced = Files.exists(entry) ? cost(sizeOf(entry)) : 0;
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            size = current - replaced + cost(bytes.length);
+            if (size > maximumSize) {
+                evict();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The bytes taken up by the entries, as counted against the size bound.
+     */
+    public synchronized long size() {
+        if (size < 0) {
+            size = 0;
+            for (Path entry : entries()) {
+                try {
+                    size += cost(Files.size(entry));
+                } catch (NoSuchFileException ignored) {
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return size;
+    }
+
+    private void evict() throws IOException {
+        List<Path> entries = entries();
+        List<FileTime> lastModified = new ArrayList<>(entries.size());
+        List<Long> costs = new ArrayList<>(entries.size());
+        List<Integer> byAge = new ArrayList<>(entries.size());
+        size = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            lastModified.add(lastModified(entries.get(i)));
+            costs.add(cost(sizeOf(entries.get(i))));
+            size += costs.get(i);
+            byAge.add(i);
+        }
+        byAge.sort(Comparator.comparing(lastModified::get));
+
+        // Evict down to three quarters of the bound so that a full cache does not walk its directory on every put.
+        long target = maximumSize - maximumSize / 4;
+        for (Integer i : byAge) {
+            if (size <= target) {
+                break;
+            }
+            if (Files.deleteIfExists(entries.get(i))) {
+                size -= costs.get(i);
+            }
+        }
+    }
+
+    private List<Path> entries() {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileTime lastModified(Path entry) throws IOException {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (NoSuchFileException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOf(Path entry) throws IOException {
+        try {
+            return Files.size(entry);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private static long cost(long bytes) {
+        return Math.max(BLOCK_SIZE, (bytes + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE);
+    }
+
+    private Path entry(String contentHash, String recipeHash) {
+        String key = sha256(contentHash + ':' + recipeHash);
+        return directory.resolve(key.substring(0, 2)).resolve(key.substring(2) + ENTRY_SUFFIX);
+    }
+
+    public static String contentHash(byte[] content) {
+        return hex(digest().digest(content));
+    }
+
+    /**
+     * A hash of everything besides the source file that decides what a recipe does to it: the names and option values of
+     * the recipe and every recipe in its recipe list, and the versions of this module and of rewrite. Snapshot builds
+     * without an implementation version in their manifest all hash alike, so a cache should not outlive a change to
+     * the recipes' code in development.
+     */
+    public static String recipeHash(Recipe recipe) {
+        StringBuilder configuration = new StringBuilder()
+                .append(ResultCache.class.getPackage().getImplementationVersion()).append('\n')
+                .append(Recipe.class.getPackage().getImplementationVersion()).append('\n');
+        appendConfiguration(recipe, configuration, 0, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return sha256(configuration.toString());
+    }
+
+    private static void appendConfiguration(Recipe recipe, StringBuilder configuration, int depth, Set<Recipe> seen) {
+        for (int i = 0; i < depth; i++) {
+            configuration.append("  ");
+        }
+        configuration.append(recipe.getName());
+        if (!seen.add(recipe)) {
+            configuration.append(" (repeated)\n");
+            return;
+        }
+        for (Class<?> c = recipe.getClass(); c != null && c != Recipe.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Option.class)) {
+                    field.setAccessible(true);
+                    try {
+                        configuration.append(' ').append(field.getName()).append('=').append(field.get(recipe));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Unable to read option " + field.getName() + " of " + recipe.getName(), e);
+                    }
+                }
+            }
+        }
+        configuration.append('\n');
+        for (Recipe next : recipe.getRecipeList()) {
+            appendConfiguration(next, configuration, depth + 1, seen);
+        }
+    }
+
+    private static String sha256(String s) {
+        return hex(digest().digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.Recipe;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.testing.internal.RequiresReferencedTypes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides from the raw text of a Java source file, before it is parsed, whether a recipe could possibly change it.
+ * <p>
+ * Unless it inherits the type's members from a supertype declared in another file, a file refers to a type by
+ * mentioning its package: in an import, a fully qualified name or its own package declaration. So a Java source file that mentions none of the packages of the types a recipe
+ * requires, as declared by the recipe itself through {@link RequiresReferencedTypes}, is skipped. A recipe that can
+ * also reach a type through a member inherited from a supertype in another file says so, and any file that extends a
+ * class passes for it. Recipes from rewrite itself are covered by the types named in their options. Any other recipe,
+ * like one that reads the whole source set before changing any one file, disables the prefilter for the composite it
+ * is part of. Files that are not Java sources always pass.
+ */
+public final class SourcePrefilter {
+    /**
+     * The text any one of which a Java source file has to contain, or null if every Java source file passes.
+     */
+    @Nullable
+    private final Set<String> needles;
+
+    private SourcePrefilter(@Nullable Set<String> needles) {
+        this.needles = needles;
+    }
+
+    public static SourcePrefilter of(Recipe recipe) {
+        Set<String> needles = new LinkedHashSet<>();
+        return new SourcePrefilter(collectNeedles(recipe, needles, Collections.newSetFromMap(new IdentityHashMap<>())) ?
+                needles : null);
+    }
+
+    /**
+     * @return Whether every Java source file passes, because the recipe includes a recipe that does not declare the
+     * types it requires.
+     */
+    public boolean isUnfiltered() {
+        return needles == null;
+    }
+
+    public boolean mightChange(Path sourcePath, CharSequence source) {
+        if (needles == null || !sourcePath.toString().endsWith(".java")) {
+            return true;
+        }
+        String text = source.toString();
+        for (String needle : needles) {
+            if (text.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The source paths of files the recipe might change, in their original order.
+     */
+    public List<Path> filter(Path projectDir, List<Path> sourcePaths) {
+        if (needles == null) {
+            return sourcePaths;
+        }
+        List<Path> filtered = new ArrayList<>(sourcePaths.size());
+        for (Path sourcePath : sourcePaths) {
+            if (!sourcePath.toString().endsWith(".java") || mightChange(sourcePath, read(projectDir.resolve(sourcePath)))) {
+                filtered.add(sourcePath);
+            }
+        }
+        return filtered;
+    }
+
+    private static String read(Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return false if the recipe or one in its recipe list can change a Java source file that mentions none of the
+     * needles it can contribute.
+     */
+    private static boolean collectNeedles(Recipe recipe, Set<String> needles, Set<Recipe> seen) {
+        if (!seen.add(recipe)) {
+            return true;
+        }
+
+        String recipeClass = recipe.getClass().getName();
+        if (recipe instanceof RequiresReferencedTypes) {
+            RequiresReferencedTypes requires = (RequiresReferencedTypes) recipe;
+            for (String type : requires.getRequiredTypes()) {
+                if (!addPackage(type, needles)) {
+                    return false;
+                }
+            }
+            if (requires.isInheritable()) {
+                needles.add("extends");
+            }
+        } else if (recipeClass.startsWith("org.openrewrite.maven.")) {
+            // Maven recipes only change poms, but some look at the Java sources that use a type.
+            if (!addPackages(RecipeOptions.get(recipe, "onlyIfUsing"), needles)) {
+                return false;
+            }
+        } else if (RecipeOptions.has(recipe, "oldFullyQualifiedTypeName") || RecipeOptions.has(recipe, "methodPattern")) {
+            List<String> methodPatterns = RecipeOptions.get(recipe, "methodPattern");
+            if (methodPatterns == null || !addPackages(RecipeOptions.get(recipe, "oldFullyQualifiedTypeName"), needles)) {
+                return false;
+            }
+            for (String methodPattern : methodPatterns) {
+                if (!addPackage(methodPattern.trim().split("\\s+")[0], needles)) {
+                    return false;
+                }
+            }
+        } else if (!"org.openrewrite.config.DeclarativeRecipe".equals(recipeClass)) {
+            return false;
+        }
+
+        for (Recipe next : recipe.getRecipeList()) {
+            if (!collectNeedles(next, needles, seen)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if an option could not be read, or one of the type patterns does not start with a package.
+     */
+    private static boolean addPackages(@Nullable List<String> typePatterns, Set<String> needles) {
+        if (typePatterns == null) {
+            return false;
+        }
+        for (String typePattern : typePatterns) {
+            if (!addPackage(typePattern, needles)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the package of a type name or type pattern, e.g. {@code org.junit} for {@code org.junit.Assert} or
+     * {@code org.junit.*}.
+     *
+     * @return false if the pattern does not start with a package that a file referring to the type must mention.
+     */
+    private static boolean addPackage(String typePattern, Set<String> needles) {
+        StringBuilder pkg = new StringBuilder();
+        for (String segment : typePattern.split("\\.")) {
+            if (segment.isEmpty() || segment.contains("*") || !Character.isLowerCase(segment.charAt(0))) {
+                break;
+            }
+            if (pkg.length() > 0) {
+                pkg.append('.');
+            }
+            pkg.append(segment);
+        }
+        if (pkg.length() == 0) {
+            return false;
+        }
+        needles.add(pkg.toString());
+        return true;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Recipe;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.testing.internal.MavenModules;
+import org.openrewrite.java.testing.internal.ReferencedTypes;
+import org.openrewrite.java.tree.J;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a recipe over a project a batch of source files at a time, so that peak heap is bounded by the batch size rather
+ * than by the number of source files. Each batch is parsed, run and handed to a sink, which is expected to write the
+ * results, before the next batch is parsed. Java source files that the recipe's {@link SourcePrefilter} rules out are
+ * not parsed at all.
+ * <p>
+ * Poms are run last, all together, since there are few of them and a module's pom can depend on its parent's. The
+ * steps that look at them across files, like the {@code AddDependency} of {@code JUnit4to5Migration} that only applies
+ * if the module's Java sources use a type, see a summary of each module instead of all of its sources: for each type
+ * named by an {@code onlyIfUsing} option in the recipe list, the first migrated compilation unit of the module that
+ * refers to it. That is at most a handful of compilation units per module, and the results of running the recipe over
+ * them again are not passed to the sink. Dependency upgrades that the batches recorded, like the okhttp upgrade of
+ * {@code UpdateMockWebServer}, stay in the {@link ExecutionContext} until the poms are run.
+ * <p>
+ * Any other recipe that looks across source files, like {@code TestsShouldIncludeAssertions} that follows calls into
+ * helpers of other files, would see a different source set in every batch. Such recipes are refused.
+ */
+public class StreamingRecipeRunner {
+    private final int batchSize;
+
+    public StreamingRecipeRunner(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param projectDir  The directory the source paths are relative to, which the parser must also parse relative to.
+     * @param sourcePaths The source files to run the recipe over.
+     * @param parser      Parses a batch of source files. It is called once per batch and should not hold on to the
+     *                    source files it returned, e.g. by resetting a reused {@code JavaParser}.
+     * @param sink        Receives the results of each batch as soon as the batch has run.
+     */
+    public void run(Recipe recipe, Path projectDir, List<Path> sourcePaths,
+                    Function<List<Path>, List<? extends SourceFile>> parser, Consumer<Result> sink, ExecutionContext ctx) {
+        for (Recipe crossFile : CrossFileRecipes.find(recipe)) {
+            if (!CrossFileRecipes.onlyChangesPoms(crossFile)) {
+                throw new IllegalArgumentException("Unable to run " + recipe.getName() + " in batches, because " +
+                        crossFile.getName() + " needs to see every source file of the run at once");
+            }
+        }
+
+        List<Path> poms = new ArrayList<>();
+        List<Path> sources = new ArrayList<>();
+        for (Path sourcePath : sourcePaths) {
+            Path relativePath = projectDir.relativize(projectDir.resolve(sourcePath));
+            if (MavenModules.isPom(relativePath)) {
+                poms.add(relativePath);
+            } else {
+                sources.add(relativePath);
+            }
+        }
+
+        sources = SourcePrefilter.of(recipe).filter(projectDir, sources);
+        List<Path> moduleRoots = MavenModules.roots(poms);
+        Set<String> crossFileTypes = onlyIfUsing(recipe);
+        Map<Path, Map<String, J.CompilationUnit>> summaries = new HashMap<>();
+
+        for (int from = 0; from < sources.size(); from += batchSize) {
+            List<? extends SourceFile> batch = parser.apply(resolve(projectDir,
+                    sources.subList(from, Math.min(from + batchSize, sources.size()))));
+
+            Map<UUID, SourceFile> migrated = new LinkedHashMap<>();
+            for (SourceFile sourceFile : batch) {
+                migrated.put(sourceFile.getId(), sourceFile);
+            }
+            for (Result result : recipe.run(batch, ctx)) {
+                sink.accept(result);
+                if (result.getBefore() != null) {
+                    migrated.put(result.getBefore().getId(), result.getAfter());
+                }
+            }
+
+            if (!moduleRoots.isEmpty() && !crossFileTypes.isEmpty()) {
+                for (SourceFile sourceFile : migrated.values()) {
+                    if (sourceFile instanceof J.CompilationUnit) {
+                        summarize((J.CompilationUnit) sourceFile, moduleRoots, crossFileTypes, summaries, ctx);
+                    }
+                }
+            }
+        }
+
+        if (poms.isEmpty()) {
+            return;
+        }
+        List<SourceFile> buildFiles = new ArrayList<>(parser.apply(resolve(projectDir, poms)));
+        Set<UUID> summarized = new LinkedHashSet<>();
+        for (Map<String, J.CompilationUnit> summary : summaries.values()) {
+            for (J.CompilationUnit cu : summary.values()) {
+                if (summarized.add(cu.getId())) {
+                    buildFiles.add(cu);
+                }
+            }
+        }
+        for (Result result : recipe.run(buildFiles, ctx)) {
+            if (result.getBefore() == null || !summarized.contains(result.getBefore().getId())) {
+                sink.accept(result);
+            }
+        }
+    }
+
+    private static void summarize(J.CompilationUnit cu, List<Path> moduleRoots, Set<String> crossFileTypes,
+                                  Map<Path, Map<String, J.CompilationUnit>> summaries, ExecutionContext ctx) {
+        Path moduleRoot = MavenModules.module(moduleRoots, cu.getSourcePath());
+        if (moduleRoot == null) {
+            return;
+        }
+        Map<String, J.CompilationUnit> summary = summaries.computeIfAbsent(moduleRoot, m -> new HashMap<>());
+        if (summary.size() == crossFileTypes.size()) {
+            return;
+        }
+        ReferencedTypes referencedTypes = ReferencedTypes.of(cu, ctx);
+        for (String crossFileType : crossFileTypes) {
+            if (!summary.containsKey(crossFileType) && referencedTypes.uses(crossFileType)) {
+                summary.put(crossFileType, cu);
+            }
+        }
+    }
+
+    private static List<Path> resolve(Path projectDir, List<Path> relativePaths) {
+        List<Path> paths = new ArrayList<>(relativePaths.size());
+        for (Path relativePath : relativePaths) {
+            paths.add(projectDir.resolve(relativePath));
+        }
+        return paths;
+    }
+
+    /**
+     * @return The types named by the {@code onlyIfUsing} options of the recipe and every recipe in its recipe list.
+     */
+    static Set<String> onlyIfUsing(Recipe recipe) {
+        Set<String> types = new LinkedHashSet<>();
+        collectOnlyIfUsing(recipe, types, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return types;
+    }
+
+    private static void collectOnlyIfUsing(Recipe recipe, Set<String> types, Set<Recipe> seen) {
+        if (!seen.add(recipe)) {
+            return;
+        }
+        List<String> onlyIfUsing = RecipeOptions.get(recipe, "onlyIfUsing");
+        if (onlyIfUsing == null) {
+            throw new IllegalArgumentException("Unable to read the onlyIfUsing option of " + recipe.getName() +
+                    ", which the summary of the Java sources has to cover");
+        }
+        types.addAll(onlyIfUsing);
+        for (Recipe next : recipe.getRecipeList()) {
+            collectOnlyIfUsing(next, types, seen);
+        }
+    }
+}
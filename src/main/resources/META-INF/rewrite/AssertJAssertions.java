@@ -3752,3 +3752,42 @@ public interface Representation {
   String unambiguousToStringOf(Object p0);
 }
 ---
+package org.assertj.core.api;
+import java.io.*;
+
+public abstract class AbstractMapSizeAssert extends AbstractIntegerAssert {
+  public abstract AbstractMapAssert returnToMap();
+}
+---
+package org.assertj.core.api;
+import java.io.*;
+
+public class ThrowableAssertAlternative extends AbstractAssert {
+  public ThrowableAssertAlternative withMessage(String p0) { return (ThrowableAssertAlternative) (Object) null; }
+  public ThrowableAssertAlternative withMessage(String p0, Object[] p1) { return (ThrowableAssertAlternative) (Object) null; }
+  public ThrowableAssertAlternative withMessageContaining(String p0) { return (ThrowableAssertAlternative) (Object) null; }
+  public ThrowableAssertAlternative withNoCause() { return (ThrowableAssertAlternative) (Object) null; }
+}
+---
+package org.assertj.core.api;
+import java.io.*;
+
+public class WithThrowable {
+  public ThrowableAssertAlternative withThrowableOfType(Class p0) { return (ThrowableAssertAlternative) (Object) null; }
+}
+---
+package org.assertj.core.api.recursive.comparison;
+import java.io.*;
+
+public class FieldComparators {
+  public boolean isEmpty() { return false; }
+}
+---
+package org.assertj.core.data;
+import java.io.*;
+
+public interface TemporalOffset {
+  boolean isBeyondOffset(java.time.temporal.Temporal p0, java.time.temporal.Temporal p1);
+  String getBeyondOffsetDifferenceDescription(java.time.temporal.Temporal p0, java.time.temporal.Temporal p1);
+}
+---
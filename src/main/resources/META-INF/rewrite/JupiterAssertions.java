@@ -306,6 +306,10 @@ public interface Executable {
     void execute() throws Throwable;
 }
 
+---
+
+package org.junit.jupiter.api.function;
+
 public interface ThrowingSupplier {
     Object get() throws Throwable;
 }
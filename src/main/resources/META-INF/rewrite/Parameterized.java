@@ -42,6 +42,7 @@ public @interface MethodSource {
 package org.junit.jupiter.params.provider;
 
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import org.junit.jupiter.api.extension.ExtensionContext;
 import java.util.stream.Stream;
 import java.lang.reflect.Method;
 
@@ -162,7 +163,6 @@ public @interface TestInstance {
 
 package org.junit.jupiter.params.provider;
 
-import org.junit.platform.commons.util.Preconditions;
 public interface Arguments {
     Object[] get();
     static Arguments of(Object... arguments) {
@@ -178,7 +178,22 @@ public interface Arguments {
 package org.junit.jupiter.params.provider;
 
 import org.junit.jupiter.api.extension.ExtensionContext;
+import java.util.stream.Stream;
 
 public interface ArgumentsProvider {
     Stream<? extends Arguments> provideArguments(ExtensionContext context) throws Exception;
 }
+
+---
+
+package org.junit.jupiter.api.extension;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TestInstances {
+    Object getInnermostInstance();
+    List<Object> getEnclosingInstances();
+    List<Object> getAllInstances();
+    <T> Optional<T> findInstance(Class<T> requiredType);
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.assertj
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+
+class JUnitAssertionsToAssertJTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("junit")
+        .build()
+
+    override val recipe: Recipe
+        get() = JUnitAssertionsToAssertJ()
+
+    private val mixedAssertions = """
+        import org.junit.Test;
+
+        import static org.junit.jupiter.api.Assertions.*;
+
+        public class A {
+
+            @Test
+            public void test() {
+                assertEquals(1, notification());
+                assertTrue(notification() > 0, "The notification should be positive");
+                assertNotNull(notification(), () -> "The notification should not be null");
+                assertEquals(0.0d, ratio(), 0.2d);
+                assertArrayEquals(new int[]{1}, new int[]{notification()});
+            }
+            private Integer notification() {
+                return 1;
+            }
+            private Double ratio() {
+                return 0.1d;
+            }
+        }
+    """
+
+    @Test
+    fun convertsEveryAssertionInOnePass() = assertChanged(
+        before = mixedAssertions,
+        after = """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+            import static org.assertj.core.api.Assertions.within;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertThat(notification()).isEqualTo(1);
+                    assertThat(notification() > 0).as("The notification should be positive").isTrue();
+                    assertThat(notification()).withFailMessage(() -> "The notification should not be null").isNotNull();
+                    assertThat(ratio()).isCloseTo(0.0d, within(0.2d));
+                    assertThat(new int[]{notification()}).containsExactly(new int[]{1});
+                }
+                private Integer notification() {
+                    return 1;
+                }
+                private Double ratio() {
+                    return 0.1d;
+                }
+            }
+        """
+    )
+
+    /**
+     * Sources paired with the output the single assertion recipes produced for them before they were fused, as
+     * recorded in their own tests.
+     */
+    private val singleRecipeOutputs = listOf(
+        """
+            import org.junit.Test;
+
+            import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertArrayEquals(new double[]{1.0d, 2.0d, 3.0d}, notification(), .2d, "These should be close");
+                }
+                private double[] notification() {
+                    return new double[]{1.1d, 2.1d, 3.1d};
+                }
+            }
+        """ to """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+            import static org.assertj.core.api.Assertions.within;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertThat(notification()).as("These should be close").containsExactly(new double[]{1.0d, 2.0d, 3.0d}, within(.2d));
+                }
+                private double[] notification() {
+                    return new double[]{1.1d, 2.1d, 3.1d};
+                }
+            }
+        """,
+        """
+            import org.junit.Test;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    org.junit.jupiter.api.Assertions.assertFalse(notification() != null && notification() > 0);
+                    org.junit.jupiter.api.Assertions.assertFalse(notification() != null && notification() > 0, "The notification should be negative");
+                    org.junit.jupiter.api.Assertions.assertFalse(notification() != null && notification() > 0, () -> "The notification should be negative");
+                }
+                private Integer notification() {
+                    return 1;
+                }
+            }
+        """ to """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertThat(notification() != null && notification() > 0).isFalse();
+                    assertThat(notification() != null && notification() > 0).as("The notification should be negative").isFalse();
+                    assertThat(notification() != null && notification() > 0).withFailMessage(() -> "The notification should be negative").isFalse();
+                }
+                private Integer notification() {
+                    return 1;
+                }
+            }
+        """,
+        """
+            import org.junit.Test;
+
+            import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertNotEquals(0.0d, notification(), 0.2d);
+                }
+                private Double notification() {
+                    return 1.1d;
+                }
+            }
+        """ to """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+            import static org.assertj.core.api.Assertions.within;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertThat(notification()).isNotCloseTo(0.0d, within(0.2d));
+                }
+                private Double notification() {
+                    return 1.1d;
+                }
+            }
+        """,
+        """
+            import org.junit.Test;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    org.junit.jupiter.api.Assertions.assertNull(notification());
+                    org.junit.jupiter.api.Assertions.assertNull(notification(), "Should be null");
+                    org.junit.jupiter.api.Assertions.assertNull(notification(), () -> "Should be null");
+                }
+                private String notification() {
+                    return null;
+                }
+            }
+        """ to """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    assertThat(notification()).isNull();
+                    assertThat(notification()).as("Should be null").isNull();
+                    assertThat(notification()).withFailMessage(() -> "Should be null").isNull();
+                }
+                private String notification() {
+                    return null;
+                }
+            }
+        """,
+        """
+            import org.junit.jupiter.api.Test;
+
+            import static org.junit.jupiter.api.Assertions.assertSame;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    String str = "String";
+                    assertSame(notification(), str);
+                }
+                private String notification() {
+                    return "String";
+                }
+            }
+        """ to """
+            import org.junit.jupiter.api.Test;
+
+            import static org.assertj.core.api.Assertions.assertThat;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    String str = "String";
+                    assertThat(str).isSameAs(notification());
+                }
+                private String notification() {
+                    return "String";
+                }
+            }
+        """,
+        """
+            import org.junit.Test;
+
+            import static org.junit.jupiter.api.Assertions.fail;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    Throwable t = new Throwable();
+                    fail("This should fail", t);
+                }
+            }
+        """ to """
+            import org.junit.Test;
+
+            import static org.assertj.core.api.Assertions.fail;
+
+            public class A {
+
+                @Test
+                public void test() {
+                    Throwable t = new Throwable();
+                    fail("This should fail", t);
+                }
+            }
+        """
+    )
+
+    @Test
+    fun sameResultAsTheSingleAssertionRecipesProducedBeforeFusion() {
+        val ctx = InMemoryExecutionContext { throw it }
+        for ((before, after) in singleRecipeOutputs) {
+            parser.reset()
+            val results = recipe.run(parser.parse(before.trimIndent()), ctx)
+            assertThat(results).hasSize(1)
+            assertThat(results[0].after!!.print()).isEqualTo(after.trimIndent())
+        }
+    }
+}
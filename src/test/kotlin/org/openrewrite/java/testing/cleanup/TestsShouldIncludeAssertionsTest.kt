@@ -211,4 +211,166 @@ class TestsShouldIncludeAssertionsTest : JavaRecipeTest {
             }
         """
     )
+
+    @Test
+    fun additionalAssertion() = assertUnchanged(
+        recipe = TestsShouldIncludeAssertions(listOf("org.acme.testing.CustomAsserts")),
+        dependsOn = arrayOf(
+            """
+                package org.acme.testing;
+                public class CustomAsserts {
+                    public static void assertPositive(int i) {}
+                }
+            """
+        ),
+        before = """
+            import org.junit.jupiter.api.Test;
+            
+            import static org.acme.testing.CustomAsserts.assertPositive;
+            
+            public class AaTest {
+                @Test
+                public void methodTest() {
+                    assertPositive(Integer.valueOf("2"));
+                }
+            }
+        """
+    )
+
+    @Test
+    fun nestedAssertion() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+            import java.util.Arrays;
+            
+            import static org.junit.jupiter.api.Assertions.assertTrue;
+            
+            public class AaTest {
+                @Test
+                public void methodTest() {
+                    for (Integer i : Arrays.asList(1, 2)) {
+                        try {
+                            Arrays.asList(i).forEach(it -> assertTrue(it > 0));
+                        } finally {
+                            System.out.println(i);
+                        }
+                    }
+                }
+            }
+        """
+    )
+
+    @Test
+    fun assertionInHelperMethod() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+            
+            import static org.junit.jupiter.api.Assertions.assertEquals;
+            
+            public class AaTest {
+                @Test
+                public void methodTest() {
+                    check(Integer.valueOf("2"));
+                }
+            
+                private void check(Integer i) {
+                    verify(i);
+                }
+            
+                private void verify(Integer i) {
+                    assertEquals(2, i);
+                }
+            }
+        """
+    )
+
+    @Test
+    fun assertionInHelperMethodOfAnotherFile() = assertUnchanged(
+        dependsOn = arrayOf(
+            """
+                import static org.junit.jupiter.api.Assertions.assertEquals;
+                
+                public abstract class AbstractIntegrationTest {
+                    protected void verifyResponse(Integer i) {
+                        check(i);
+                    }
+                
+                    private void check(Integer i) {
+                        assertEquals(2, i);
+                    }
+                }
+            """
+        ),
+        before = """
+            import org.junit.jupiter.api.Test;
+            
+            public class AaTest extends AbstractIntegrationTest {
+                @Test
+                public void methodTest() {
+                    verifyResponse(Integer.valueOf("2"));
+                }
+            }
+        """
+    )
+
+    @Test
+    fun assertionInAnonymousClassBelongsToTheEnclosingMethod() = assertChanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+            
+            import static org.junit.jupiter.api.Assertions.assertEquals;
+            
+            public class AaTest {
+                @Test
+                public void anonymousTest() {
+                    Runnable check = new Runnable() {
+                        @Override
+                        public void run() {
+                            assertEquals(2, Integer.valueOf("2"));
+                        }
+                    };
+                    check.run();
+                }
+            
+                @Test
+                public void methodTest() {
+                    run();
+                }
+            
+                private void run() {
+                    System.out.println(Integer.valueOf("2"));
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            
+            import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+            import static org.junit.jupiter.api.Assertions.assertEquals;
+            
+            public class AaTest {
+                @Test
+                public void anonymousTest() {
+                    Runnable check = new Runnable() {
+                        @Override
+                        public void run() {
+                            assertEquals(2, Integer.valueOf("2"));
+                        }
+                    };
+                    check.run();
+                }
+            
+                @Test
+                public void methodTest() {
+                    assertDoesNotThrow(() -> {
+                        run();
+                    });
+                }
+            
+                private void run() {
+                    System.out.println(Integer.valueOf("2"));
+                }
+            }
+        """
+    )
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.corpus
+
+import kotlin.random.Random
+
+/**
+ * The JUnit 4 constructs the migration recipes handle. Each one is given a weight in [JUnit4Corpus]: the probability
+ * that a generated class uses it. [TEST_CASE], [PARAMETERIZED] and [JUNIT_PARAMS] decide how a class is run, so a
+ * class uses at most one of them, chosen in proportion to their weights.
+ */
+enum class Construct {
+    TEST_CASE,
+    PARAMETERIZED,
+    JUNIT_PARAMS,
+    EXPECTED_EXCEPTION,
+    TEMPORARY_FOLDER,
+    CATEGORY,
+    MOCKITO_RULE,
+    MOCK_WEB_SERVER,
+    ASSERT
+}
+
+/**
+ * Generates realistic JUnit 4 test classes for scale testing. Generation is seeded, and each class is derived only
+ * from the seed and its name, so the same configuration always yields the same sources, in any order and on any
+ * thread.
+ */
+class JUnit4Corpus @JvmOverloads constructor(
+    private val seed: Long = 0,
+    private val methodsPerClass: Int = 10,
+    private val assertionsPerMethod: Int = 3,
+    private val weights: Map<Construct, Double> = DEFAULT_WEIGHTS
+) {
+    companion object {
+        @JvmField
+        val DEFAULT_WEIGHTS: Map<Construct, Double> = mapOf(
+            Construct.TEST_CASE to 0.1,
+            Construct.PARAMETERIZED to 0.1,
+            Construct.JUNIT_PARAMS to 0.05,
+            Construct.EXPECTED_EXCEPTION to 0.3,
+            Construct.TEMPORARY_FOLDER to 0.2,
+            Construct.CATEGORY to 0.2,
+            Construct.MOCKITO_RULE to 0.2,
+            Construct.MOCK_WEB_SERVER to 0.05,
+            Construct.ASSERT to 1.0
+        )
+
+        private val RUNNERS = listOf(Construct.TEST_CASE, Construct.PARAMETERIZED, Construct.JUNIT_PARAMS)
+    }
+
+    /**
+     * The artifact names the generated sources compile against, for `JavaParser.Builder#classpath`.
+     */
+    val classpath: Array<String> = arrayOf("junit", "hamcrest", "mockito", "mockwebserver", "JUnitParams")
+
+    fun generate(classes: Int): List<String> = (0 until classes).map { generate("Generated${it}Test") }
+
+    fun generate(className: String): String {
+        val random = Random(seed * 31 + className.hashCode())
+        val runner = pickRunner(random)
+        val constructs = Construct.values()
+            .filter { it !in RUNNERS && random.nextDouble() < weight(it) }
+            .toSet()
+        return if (runner == Construct.TEST_CASE) {
+            testCase(className, constructs, random)
+        } else {
+            junit4Class(className, runner, constructs, random)
+        }
+    }
+
+    private fun weight(construct: Construct) = weights[construct] ?: 0.0
+
+    private fun pickRunner(random: Random): Construct? {
+        val runnerWeight = RUNNERS.sumOf { weight(it) }
+        if (runnerWeight <= 0.0 || random.nextDouble() >= minOf(runnerWeight, 1.0)) {
+            return null
+        }
+        var pick = random.nextDouble() * runnerWeight
+        for (runner in RUNNERS) {
+            pick -= weight(runner)
+            if (pick < 0) {
+                return runner
+            }
+        }
+        return RUNNERS.last { weight(it) > 0.0 }
+    }
+
+    private fun testCase(className: String, constructs: Set<Construct>, random: Random): String {
+        val source = StringBuilder()
+        source.append("package com.example.corpus;\n\n")
+            .append("import junit.framework.TestCase;\n\n")
+            .append("public class $className extends TestCase {\n")
+            .append("    private int value;\n\n")
+            .append("    @Override\n    protected void setUp() throws Exception {\n        value = 1;\n    }\n")
+        for (m in 0 until methodsPerClass) {
+            source.append("\n    public void test$m() {\n")
+            if (Construct.ASSERT in constructs) {
+                repeat(assertionsPerMethod) {
+                    source.append("        ").append(testCaseAssertion(random)).append('\n')
+                }
+            }
+            source.append("    }\n")
+        }
+        return source.append("}\n").toString()
+    }
+
+    private fun junit4Class(className: String, runner: Construct?, constructs: Set<Construct>, random: Random): String {
+        val imports = sortedSetOf("org.junit.After", "org.junit.Before", "org.junit.Test")
+        val staticImports = sortedSetOf<String>()
+        val members = StringBuilder()
+        val classAnnotations = StringBuilder()
+
+        when (runner) {
+            Construct.PARAMETERIZED -> {
+                imports += listOf("org.junit.runner.RunWith", "org.junit.runners.Parameterized",
+                    "org.junit.runners.Parameterized.Parameters", "java.util.Arrays", "java.util.Collection")
+                classAnnotations.append("@RunWith(Parameterized.class)\n")
+                members.append("    @Parameters\n    public static Collection<Object[]> data() {\n")
+                    .append("        return Arrays.asList(new Object[][]{{1, 2}, {3, 4}});\n    }\n\n")
+                    .append("    private final int input;\n    private final int expected;\n\n")
+                    .append("    public $className(int input, int expected) {\n")
+                    .append("        this.input = input;\n        this.expected = expected;\n    }\n\n")
+            }
+            Construct.JUNIT_PARAMS -> {
+                imports += listOf("org.junit.runner.RunWith", "junitparams.JUnitParamsRunner", "junitparams.Parameters")
+                classAnnotations.append("@RunWith(JUnitParamsRunner.class)\n")
+            }
+            else -> {
+            }
+        }
+
+        if (Construct.CATEGORY in constructs) {
+            imports += "org.junit.experimental.categories.Category"
+            classAnnotations.append("@Category(${className}.SlowTests.class)\n")
+            members.append("    public interface SlowTests {\n    }\n\n")
+        }
+        if (Construct.EXPECTED_EXCEPTION in constructs) {
+            imports += listOf("org.junit.Rule", "org.junit.rules.ExpectedException")
+            members.append("    @Rule\n    public ExpectedException thrown = ExpectedException.none();\n\n")
+        }
+        if (Construct.TEMPORARY_FOLDER in constructs) {
+            imports += listOf("org.junit.Rule", "org.junit.rules.TemporaryFolder", "java.io.File", "java.io.IOException")
+            members.append("    @Rule\n    public TemporaryFolder folder = new TemporaryFolder();\n\n")
+        }
+        if (Construct.MOCKITO_RULE in constructs) {
+            imports += listOf("org.junit.Rule", "org.mockito.Mock", "org.mockito.junit.MockitoJUnit",
+                "org.mockito.junit.MockitoRule", "java.util.List")
+            staticImports += "org.mockito.Mockito.verify"
+            members.append("    @Rule\n    public MockitoRule mockito = MockitoJUnit.rule();\n\n")
+                .append("    @Mock\n    List<String> list;\n\n")
+        }
+        if (Construct.MOCK_WEB_SERVER in constructs) {
+            imports += listOf("org.junit.Rule", "okhttp3.mockwebserver.MockWebServer")
+            members.append("    @Rule\n    public MockWebServer server = new MockWebServer();\n\n")
+        }
+        if (Construct.ASSERT in constructs) {
+            imports += "org.junit.Assert"
+        }
+
+        members.append("    @Before\n    public void before() {\n    }\n\n")
+            .append("    @After\n    public void after() {\n    }\n")
+
+        for (m in 0 until methodsPerClass) {
+            members.append('\n')
+            val expectsException = Construct.EXPECTED_EXCEPTION in constructs && random.nextInt(4) == 0
+            val expectedAttribute = !expectsException && random.nextInt(8) == 0
+            members.append(if (expectedAttribute) "    @Test(expected = IllegalStateException.class)\n" else "    @Test\n")
+            if (runner == Construct.JUNIT_PARAMS) {
+                members.append("    @Parameters({\"1, 2\", \"3, 4\"})\n")
+                    .append("    public void test$m(int input, int expected)")
+            } else {
+                members.append("    public void test$m()")
+            }
+            members.append(if (Construct.TEMPORARY_FOLDER in constructs) " throws IOException {\n" else " {\n")
+
+            if (expectsException) {
+                members.append("        thrown.expect(IllegalArgumentException.class);\n")
+                if (random.nextBoolean()) {
+                    members.append("        thrown.expectMessage(\"invalid\");\n")
+                }
+            }
+            if (Construct.TEMPORARY_FOLDER in constructs && random.nextInt(3) == 0) {
+                members.append("        File file = folder.newFile(\"file$m.txt\");\n")
+            }
+            if (Construct.MOCKITO_RULE in constructs && random.nextInt(3) == 0) {
+                members.append("        list.add(\"value\");\n        verify(list).add(\"value\");\n")
+            }
+            if (Construct.MOCK_WEB_SERVER in constructs && random.nextInt(3) == 0) {
+                members.append("        server.url(\"/path$m\");\n")
+            }
+            if (Construct.ASSERT in constructs) {
+                repeat(assertionsPerMethod) {
+                    members.append("        ").append(assertion(random)).append('\n')
+                }
+            }
+            if (expectsException) {
+                members.append("        throw new IllegalArgumentException(\"invalid\");\n")
+            } else if (expectedAttribute) {
+                members.append("        throw new IllegalStateException();\n")
+            }
+            members.append("    }\n")
+        }
+
+        val source = StringBuilder("package com.example.corpus;\n\n")
+        imports.forEach { source.append("import $it;\n") }
+        if (staticImports.isNotEmpty()) {
+            source.append('\n')
+            staticImports.forEach { source.append("import static $it;\n") }
+        }
+        return source.append('\n')
+            .append(classAnnotations)
+            .append("public class $className {\n")
+            .append(members)
+            .append("}\n")
+            .toString()
+    }
+
+    private fun assertion(random: Random): String = when (random.nextInt(8)) {
+        0 -> "Assert.assertEquals(\"message\", 1, 1);"
+        1 -> "Assert.assertEquals(1.0, 1.0, 0.1);"
+        2 -> "Assert.assertTrue(\"message\", true);"
+        3 -> "Assert.assertFalse(false);"
+        4 -> "Assert.assertNull(null);"
+        5 -> "Assert.assertNotNull(\"message\", new Object());"
+        6 -> "Assert.assertSame(this, this);"
+        else -> "Assert.assertArrayEquals(new int[]{1}, new int[]{1});"
+    }
+
+    private fun testCaseAssertion(random: Random): String = when (random.nextInt(4)) {
+        0 -> "assertEquals(\"message\", 1, value);"
+        1 -> "assertTrue(value > 0);"
+        2 -> "assertNotNull(this);"
+        else -> "assertFalse(\"message\", value < 0);"
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.corpus
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+
+class JUnit4CorpusTest {
+
+    @Test
+    fun sameSeedGeneratesSameSources() {
+        assertThat(JUnit4Corpus(seed = 42).generate(50))
+            .isEqualTo(JUnit4Corpus(seed = 42).generate(50))
+    }
+
+    @Test
+    fun classDependsOnlyOnSeedAndName() {
+        val corpus = JUnit4Corpus(seed = 42)
+        assertThat(corpus.generate("Generated7Test")).isEqualTo(corpus.generate(50)[7])
+    }
+
+    @Test
+    fun differentSeedGeneratesDifferentSources() {
+        assertThat(JUnit4Corpus(seed = 1).generate(50))
+            .isNotEqualTo(JUnit4Corpus(seed = 2).generate(50))
+    }
+
+    @Test
+    fun weightsControlTheMixOfConstructs() {
+        val noRules = JUnit4Corpus(weights = mapOf(Construct.ASSERT to 1.0)).generate(20)
+        assertThat(noRules).noneMatch { it.contains("@Rule") || it.contains("@RunWith") || it.contains("extends TestCase") }
+        assertThat(noRules).allMatch { it.contains("Assert.assert") }
+
+        val testCases = JUnit4Corpus(weights = mapOf(Construct.TEST_CASE to 1.0)).generate(20)
+        assertThat(testCases).allMatch { it.contains("extends TestCase") }
+    }
+
+    @Test
+    fun everyConstructIsGenerated() {
+        val sources = JUnit4Corpus(seed = 7).generate(200).joinToString("\n")
+        assertThat(sources).contains(
+            "extends TestCase",
+            "@RunWith(Parameterized.class)",
+            "@RunWith(JUnitParamsRunner.class)",
+            "ExpectedException thrown",
+            "TemporaryFolder folder",
+            "@Category(",
+            "MockitoRule mockito",
+            "MockWebServer server",
+            "Assert.assert"
+        )
+    }
+
+    @Test
+    fun generatedSourcesParse() {
+        val corpus = JUnit4Corpus(seed = 3, methodsPerClass = 3, assertionsPerMethod = 2)
+        val cus = JavaParser.fromJavaVersion()
+            .classpath(*corpus.classpath)
+            .build()
+            .parse(*corpus.generate(20).toTypedArray())
+        assertThat(cus).hasSize(20)
+        assertThat(cus).allMatch { cu -> cu.classes.isNotEmpty() }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.config.Environment
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.testing.junit5.AssertToAssertions
+
+class RecipeMetricsTest {
+
+    @Test
+    fun everyRecipeOfTheModuleIsMetered() {
+        Environment.builder()
+            .scanRuntimeClasspath("org.openrewrite.java.testing")
+            .build()
+            .listRecipes()
+            .filter { it.javaClass.name.startsWith("org.openrewrite.java.testing.") }
+            .forEach { assertThat(it).`as`(it.name).isInstanceOf(MeteredRecipe::class.java) }
+    }
+
+    @Test
+    fun recordsVisitedSkippedAndChangedCompilationUnits() {
+        val cus = JavaParser.fromJavaVersion()
+            .classpath("junit")
+            .build()
+            .parse(
+                """
+                    import org.junit.Assert;
+
+                    class A {
+                        void test() {
+                            Assert.assertTrue(true);
+                        }
+                    }
+                """.trimIndent(),
+                """
+                    class B {
+                    }
+                """.trimIndent()
+            )
+        val ctx = InMemoryExecutionContext { throw it }
+
+        val results = AssertToAssertions().run(cus, ctx)
+
+        val stats = RecipeMetrics.of(ctx).getStats("org.openrewrite.java.testing.junit5.AssertToAssertions")
+        assertThat(results).hasSize(1)
+        // the run repeats while a cycle makes changes, so every compilation unit is looked at least once
+        assertThat(stats.getVisited()).isGreaterThanOrEqualTo(2)
+        assertThat(stats.getSkipped()).isGreaterThanOrEqualTo(1)
+        assertThat(stats.getVisited() - stats.getSkipped()).isGreaterThanOrEqualTo(1)
+        assertThat(stats.getChanged()).isEqualTo(1)
+        assertThat(stats.getNanos()).isPositive()
+        assertThat(RecipeMetrics.of(ctx).summary()).contains("org.openrewrite.java.testing.junit5.AssertToAssertions")
+    }
+}
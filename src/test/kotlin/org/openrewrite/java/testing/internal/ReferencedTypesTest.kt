@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.java.JavaParser
+
+class ReferencedTypesTest {
+
+    @Test
+    fun recordsTheTypeParametersOfEveryParameterization() {
+        val cus = JavaParser.fromJavaVersion().build().parse(
+            """
+                package org.example;
+                public class Foo {}
+            """.trimIndent(),
+            """
+                package org.example;
+                public class Bar {}
+            """.trimIndent(),
+            """
+                package org.example;
+                import java.util.List;
+                public class Repository {
+                    public List<Foo> foos() { return null; }
+                    public List<Bar> bars() { return null; }
+                }
+            """.trimIndent(),
+            """
+                import org.example.Repository;
+
+                class A {
+                    void test(Repository repository) {
+                        var foos = repository.foos();
+                        var bars = repository.bars();
+                    }
+                }
+            """.trimIndent()
+        )
+
+        val referencedTypes = ReferencedTypes.of(cus[3], InMemoryExecutionContext())
+
+        assertThat(referencedTypes.uses("java.util.List")).isTrue
+        assertThat(referencedTypes.uses("org.example.Foo")).isTrue
+        assertThat(referencedTypes.uses("org.example.Bar")).isTrue
+    }
+}
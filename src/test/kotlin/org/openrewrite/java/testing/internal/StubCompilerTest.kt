@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.nio.file.Files
+
+class StubCompilerTest {
+
+    @Test
+    fun compilesOneClassFilePerType() {
+        val classes = StubCompiler.compile("AssertJAssertions", StubParsers.resourceInputs(StubParsers.ASSERTJ_ASSERTIONS))
+
+        assertThat(classes).isNotNull
+        assertThat(Files.exists(classes!!.resolve("org/assertj/core/api/Assertions.class"))).isTrue
+        assertThat(Files.exists(classes.resolve("org/assertj/core/data/Offset.class"))).isTrue
+    }
+
+    @Test
+    fun compilesSectionsThatDeclareSeveralPackages() {
+        val classes = StubCompiler.compile("JupiterAssertions", StubParsers.resourceInputs(StubParsers.JUPITER_ASSERTIONS))
+
+        assertThat(classes).isNotNull
+        assertThat(Files.exists(classes!!.resolve("org/junit/jupiter/api/Assertions.class"))).isTrue
+        assertThat(Files.exists(classes.resolve("org/junit/jupiter/api/function/Executable.class"))).isTrue
+        assertThat(Files.exists(classes.resolve("org/opentest4j/MultipleFailuresError.class"))).isTrue
+    }
+}
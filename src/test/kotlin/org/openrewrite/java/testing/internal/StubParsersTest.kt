@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.internal
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.tree.J
+
+class StubParsersTest {
+
+    @Test
+    fun stubResourcesArePrecompiled() {
+        listOf(StubParsers.ASSERTJ_ASSERTIONS, StubParsers.JUPITER_ASSERTIONS, StubParsers.PARAMETERIZED).forEach {
+            assertThat(StubParsers.resourceClasspath(it)).`as`(it).isPresent
+        }
+    }
+
+    @Test
+    fun typesAreAttributedFromPrecompiledStubs() {
+        val cu = StubParsers.fromResources(StubParsers.ASSERTJ_ASSERTIONS).get().apply { reset() }.parse(
+            """
+                import static org.assertj.core.api.Assertions.assertThat;
+
+                class A {
+                    void test() {
+                        assertThat(1).isEqualTo(1);
+                    }
+                }
+            """.trimIndent()
+        )[0]
+
+        val isEqualTo = ((cu.classes[0].body.statements[0] as J.MethodDeclaration).body!!.statements[0] as J.MethodInvocation)
+        assertThat(isEqualTo.type!!.declaringType.fullyQualifiedName)
+            .startsWith("org.assertj.core.api.")
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Result
+import org.openrewrite.SourceFile
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.testing.internal.DependencyEdits
+import org.openrewrite.java.testing.run.ParallelRecipeRunner
+import org.openrewrite.java.testing.run.StreamingRecipeRunner
+import org.openrewrite.maven.MavenParser
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.ForkJoinPool
+import java.util.function.Function
+
+class ApplyDependencyEditsTest {
+    private fun pom(artifactId: String, mockWebServer: Boolean = true) = """
+        <project>
+            <modelVersion>4.0.0</modelVersion>
+            <groupId>org.openrewrite.example</groupId>
+            <artifactId>$artifactId</artifactId>
+            <version>1.0</version>
+            ${if (mockWebServer) mockWebServerDependency else ""}
+        </project>
+    """.trimIndent()
+
+    private val mockWebServerDependency = """
+        <dependencies>
+            <dependency>
+                <groupId>com.squareup.okhttp3</groupId>
+                <artifactId>mockwebserver</artifactId>
+                <version>3.14.9</version>
+                <scope>test</scope>
+            </dependency>
+        </dependencies>
+    """.trimIndent()
+
+    private val mockWebServerTest = """
+        import okhttp3.mockwebserver.MockWebServer;
+        import org.junit.Rule;
+        class A {
+            @Rule
+            public MockWebServer server = new MockWebServer();
+        }
+    """.trimIndent()
+
+    private val plainTest = """
+        class B {
+        }
+    """.trimIndent()
+
+    @Test
+    fun upgradesOnlyThePomsOfModulesThatNeedIt() {
+        val poms = MavenParser.builder().build().parse(pom("a"), pom("b"))
+        val a = poms[0].withSourcePath(Paths.get("a/pom.xml"))
+        val b = poms[1].withSourcePath(Paths.get("b/pom.xml"))
+        val ctx = InMemoryExecutionContext { throw it }
+        val edits = DependencyEdits.of(ctx)
+        for (i in 1..100) {
+            edits.upgrade(Paths.get("a/src/test/java/A$i.java"), "com.squareup.okhttp3", "mockwebserver", "4.X")
+        }
+
+        val results = ApplyDependencyEdits().run(listOf(a, b), ctx)
+
+        assertThat(results).hasSize(1)
+        assertThat(results[0].before).isSameAs(a)
+        assertThat(results[0].after!!.print()).contains("<version>4.")
+        assertThat(edits.isEmpty).isTrue()
+    }
+
+    @Test
+    fun keepsTheUpgradesOfModulesWhosePomIsNotInTheRun() {
+        val a = MavenParser.builder().build().parse(pom("a"))[0].withSourcePath(Paths.get("a/pom.xml"))
+        val ctx = InMemoryExecutionContext { throw it }
+        val edits = DependencyEdits.of(ctx)
+        edits.upgrade(Paths.get("a/src/test/java/A.java"), "com.squareup.okhttp3", "mockwebserver", "4.X")
+        edits.upgrade(Paths.get("c/src/test/java/C.java"), "com.squareup.okhttp3", "mockwebserver", "4.X")
+
+        ApplyDependencyEdits().run(listOf(a), ctx)
+
+        assertThat(edits.recorded().values.flatten()).containsExactly(Paths.get("c/src/test/java/C.java"))
+    }
+
+    @Test
+    fun fallsBackToTheParentPomWhenTheModulePomDoesNotDeclareTheDependency() {
+        val poms = MavenParser.builder().build().parse(pom("parent"), pom("a", mockWebServer = false))
+        val parent = poms[0].withSourcePath(Paths.get("pom.xml"))
+        val a = poms[1].withSourcePath(Paths.get("a/pom.xml"))
+        val ctx = InMemoryExecutionContext { throw it }
+        DependencyEdits.of(ctx).upgrade(Paths.get("a/src/test/java/A.java"), "com.squareup.okhttp3", "mockwebserver", "4.X")
+
+        val results = ApplyDependencyEdits().run(listOf(parent, a), ctx)
+
+        assertThat(results).hasSize(1)
+        assertThat(results[0].before).isSameAs(parent)
+        assertThat(results[0].after!!.print()).contains("<version>4.")
+    }
+
+    @Test
+    fun recordingAModuleHandsTheUpgradeOnToTheModulesThatContainIt() {
+        val poms = MavenParser.builder().build().parse(pom("parent"), pom("a", mockWebServer = false))
+        val parent = poms[0].withSourcePath(Paths.get("pom.xml"))
+        val a = poms[1].withSourcePath(Paths.get("a/pom.xml"))
+        val ctx = InMemoryExecutionContext { throw it }
+        val edits = DependencyEdits.of(ctx)
+        edits.upgrade(Paths.get("a"), "com.squareup.okhttp3", "mockwebserver", "4.X")
+
+        val results = ApplyDependencyEdits().run(listOf(parent, a), ctx)
+
+        assertThat(results).hasSize(1)
+        assertThat(results[0].before).isSameAs(parent)
+        assertThat(edits.isEmpty).isTrue()
+    }
+
+    @Test
+    fun upgradesThroughTheParallelRunner() {
+        val poms = MavenParser.builder().build().parse(pom("a"), pom("b"))
+        val cus = JavaParser.fromJavaVersion().classpath("junit", "mockwebserver").build().parse(mockWebServerTest, plainTest)
+        val sourceFiles = listOf(
+            poms[0].withSourcePath(Paths.get("a/pom.xml")),
+            cus[0].withSourcePath(Paths.get("a/src/test/java/A.java")),
+            poms[1].withSourcePath(Paths.get("b/pom.xml")),
+            cus[1].withSourcePath(Paths.get("b/src/test/java/B.java"))
+        )
+        val pool = ForkJoinPool(2)
+        try {
+            val results = ParallelRecipeRunner(pool).run(UpdateMockWebServer(), sourceFiles, InMemoryExecutionContext { throw it })
+
+            assertThat(results.map { it.after!!.sourcePath.toString() }).contains("a/pom.xml").doesNotContain("b/pom.xml")
+            assertThat(results.first { it.after!!.sourcePath == Paths.get("a/pom.xml") }.after!!.print()).contains("<version>4.")
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    @Test
+    fun upgradesThroughTheStreamingRunner(@TempDir projectDir: Path) {
+        val sources = mapOf(
+            "a/pom.xml" to pom("a"),
+            "a/src/test/java/A.java" to mockWebServerTest,
+            "b/pom.xml" to pom("b"),
+            "b/src/test/java/B.java" to plainTest
+        )
+        val sourcePaths = sources.map { (path, source) ->
+            Files.createDirectories(projectDir.resolve(path).parent)
+            Files.write(projectDir.resolve(path), source.toByteArray())
+            Paths.get(path)
+        }
+        val javaParser = JavaParser.fromJavaVersion().classpath("junit", "mockwebserver").build()
+        val parser = Function<List<Path>, List<SourceFile>> { paths ->
+            javaParser.reset()
+            val (poms, javaSources) = paths.partition { it.fileName.toString() == "pom.xml" }
+            javaParser.parse(javaSources, projectDir, InMemoryExecutionContext()) +
+                    MavenParser.builder().build().parse(poms, projectDir, InMemoryExecutionContext())
+        }
+        val results = mutableListOf<Result>()
+
+        StreamingRecipeRunner(1).run(UpdateMockWebServer(), projectDir, sourcePaths, parser, { results.add(it) },
+            InMemoryExecutionContext { throw it })
+
+        assertThat(results.map { it.after!!.sourcePath.toString() }).contains("a/pom.xml").doesNotContain("b/pom.xml")
+        assertThat(results.first { it.after!!.sourcePath == Paths.get("a/pom.xml") }.after!!.print()).contains("<version>4.")
+    }
+}
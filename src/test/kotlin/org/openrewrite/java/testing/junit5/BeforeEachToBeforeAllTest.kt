@@ -0,0 +1,364 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5
+
+import org.junit.jupiter.api.Test
+import org.openrewrite.Recipe
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+
+class BeforeEachToBeforeAllTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("junit-jupiter-api", "mockito-core")
+        .build()
+
+    override val recipe: Recipe
+        get() = BeforeEachToBeforeAll()
+
+    @Test
+    fun readOnlyFixtureIsBuiltOnce() = assertChanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.util.regex.Pattern;
+
+            class A {
+                private Pattern pattern;
+
+                @BeforeEach
+                void setUp() {
+                    pattern = Pattern.compile("[a-z]+");
+                }
+
+                @Test
+                void test() {
+                    pattern.matcher("abc").matches();
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.BeforeAll;
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.TestInstance;
+
+            import java.util.regex.Pattern;
+
+            @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+            class A {
+                private Pattern pattern;
+
+                @BeforeAll
+                void setUp() {
+                    pattern = Pattern.compile("[a-z]+");
+                }
+
+                @Test
+                void test() {
+                    pattern.matcher("abc").matches();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun fixtureChangedByATestIsRebuiltForEachTest() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            class A {
+                private List<String> names;
+
+                @BeforeEach
+                void setUp() {
+                    names = new ArrayList<>();
+                }
+
+                @Test
+                void test() {
+                    names.add("a");
+                }
+            }
+        """
+    )
+
+    @Test
+    fun fixtureReassignedByATestIsRebuiltForEachTest() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            class A {
+                private String name;
+
+                @BeforeEach
+                void setUp() {
+                    name = "a";
+                }
+
+                @Test
+                void test() {
+                    name = "b";
+                }
+            }
+        """
+    )
+
+    @Test
+    fun setUpDoingMoreThanAssigningFieldsIsUnchanged() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            class A {
+                private String name;
+
+                @BeforeEach
+                void setUp() {
+                    name = "a";
+                    System.setProperty("name", name);
+                }
+
+                @Test
+                void test() {
+                    name.length();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun fixtureClosedAfterEachTestIsUnchanged() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.AfterEach;
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.io.StringReader;
+
+            class A {
+                private StringReader reader;
+
+                @BeforeEach
+                void setUp() {
+                    reader = new StringReader("a");
+                }
+
+                @AfterEach
+                void tearDown() {
+                    reader.close();
+                }
+
+                @Test
+                void test() {
+                    reader.markSupported();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun fixtureChangedThroughWhatAGetterReturnsIsRebuiltForEachTest() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            class A {
+                private Basket basket;
+
+                @BeforeEach
+                void setUp() {
+                    basket = new Basket();
+                }
+
+                @Test
+                void test() {
+                    basket.getItems().add("a");
+                }
+
+                static class Basket {
+                    private final List<String> items = new ArrayList<>();
+
+                    List<String> getItems() {
+                        return items;
+                    }
+                }
+            }
+        """
+    )
+
+    @Test
+    fun mockBuiltBeforeEachTestIsUnchanged() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.util.List;
+
+            import static org.mockito.Mockito.mock;
+
+            class A {
+                private List<String> names;
+
+                @BeforeEach
+                void setUp() {
+                    names = mock(List.class);
+                }
+
+                @Test
+                void test() {
+                    names.size();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun fixtureStubbedByATestIsRebuiltForEachTest() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+
+            import java.util.List;
+
+            import static org.mockito.Mockito.doReturn;
+            import static org.mockito.Mockito.when;
+
+            class A {
+                private List<String> names;
+
+                @BeforeEach
+                void setUp() {
+                    names = Fixtures.list();
+                }
+
+                @Test
+                void test() {
+                    when(names.get(0)).thenReturn("a");
+                }
+
+                @Test
+                void test2() {
+                    doReturn(1).when(names).size();
+                }
+
+                static class Fixtures {
+                    @SuppressWarnings("unchecked")
+                    static List<String> list() {
+                        return org.mockito.Mockito.mock(List.class);
+                    }
+                }
+            }
+        """
+    )
+
+    private fun fixtureChangedBy(type: String, initializer: String, call: String) = """
+        import org.junit.jupiter.api.BeforeEach;
+        import org.junit.jupiter.api.Test;
+
+        class A {
+            private $type fixture;
+
+            @BeforeEach
+            void setUp() {
+                fixture = $initializer;
+            }
+
+            @Test
+            void test() throws Exception {
+                fixture.$call;
+            }
+        }
+    """
+
+    @Test
+    fun fixtureAppendedToIsRebuiltForEachTest() = assertUnchanged(
+        before = fixtureChangedBy("StringBuilder", "new StringBuilder()", "append(\"a\")")
+    )
+
+    @Test
+    fun fixtureIncrementedIsRebuiltForEachTest() = assertUnchanged(
+        before = fixtureChangedBy("java.util.concurrent.atomic.AtomicInteger",
+            "new java.util.concurrent.atomic.AtomicInteger()", "incrementAndGet()")
+    )
+
+    @Test
+    fun fixtureIteratedIsRebuiltForEachTest() = assertUnchanged(
+        before = fixtureChangedBy("java.util.Iterator<String>",
+            "java.util.Arrays.asList(\"a\", \"b\").iterator()", "next()")
+    )
+
+    @Test
+    fun fixtureTakenFromIsRebuiltForEachTest() = assertUnchanged(
+        before = fixtureChangedBy("java.util.concurrent.BlockingQueue<String>",
+            "new java.util.concurrent.LinkedBlockingQueue<>(java.util.Collections.singletonList(\"a\"))", "take()")
+    )
+
+    @Test
+    fun setUpTakingATempDirIsUnchanged() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.io.TempDir;
+
+            import java.nio.file.Path;
+
+            class A {
+                private Path file;
+
+                @BeforeEach
+                void setUp(@TempDir Path dir) {
+                    file = dir.resolve("a.txt");
+                }
+
+                @Test
+                void test() {
+                    file.toFile().exists();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun setUpTakingTestInfoIsUnchanged() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.BeforeEach;
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.TestInfo;
+
+            class A {
+                private String name;
+
+                @BeforeEach
+                void setUp(TestInfo info) {
+                    name = info.getDisplayName();
+                }
+
+                @Test
+                void test() {
+                    name.length();
+                }
+            }
+        """
+    )
+}
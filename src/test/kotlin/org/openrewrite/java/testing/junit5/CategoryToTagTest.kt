@@ -15,10 +15,14 @@
  */
 package org.openrewrite.java.testing.junit5
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
 import org.openrewrite.Recipe
 import org.openrewrite.java.JavaRecipeTest
 import org.openrewrite.java.JavaParser
+import org.openrewrite.maven.MavenParser
+import java.nio.file.Paths
 
 class CategoryToTagTest : JavaRecipeTest {
     override val parser: JavaParser = JavaParser.fromJavaVersion()
@@ -128,6 +132,62 @@ class CategoryToTagTest : JavaRecipeTest {
         """
     )
 
+    @Test
+    fun changeCategoryToTagOnNestedClasses() = assertChanged(
+        dependsOn = arrayOf(
+                "public interface FastTests {}",
+                "public interface SlowTests {}"
+        ),
+        before = """
+            import org.junit.Test;
+            import org.junit.experimental.categories.Category;
+
+            @Category(SlowTests.class)
+            public class B {
+
+                @Category(FastTests.class)
+                public static class Nested {
+
+                    @Category(SlowTests.class)
+                    @Test
+                    public void b() {
+                    }
+                }
+
+                public static class Uncategorized {
+
+                    @Test
+                    public void c() {
+                    }
+                }
+            }
+        """,
+        after = """
+            import org.junit.Test;
+            import org.junit.jupiter.api.Tag;
+
+            @Tag("SlowTests")
+            public class B {
+
+                @Tag("FastTests")
+                public static class Nested {
+
+                    @Tag("SlowTests")
+                    @Test
+                    public void b() {
+                    }
+                }
+
+                public static class Uncategorized {
+
+                    @Test
+                    public void c() {
+                    }
+                }
+            }
+        """
+    )
+
     @Test
     fun maintainAnnotationPositionAmongOtherAnnotations() = assertChanged(
         dependsOn = arrayOf(
@@ -190,4 +250,70 @@ class CategoryToTagTest : JavaRecipeTest {
             }
         """
     )
+
+    @Test
+    fun mapCategoriesToTagNames() = assertChanged(
+        recipe = CategoryToTag(mapOf("com.acme.SlowTests" to "slow")),
+        dependsOn = arrayOf(
+            "package com.acme; public interface FastTests {}",
+            "package com.acme; public interface SlowTests {}"
+        ),
+        before = """
+            import com.acme.FastTests;
+            import com.acme.SlowTests;
+            import org.junit.experimental.categories.Category;
+
+            @Category({SlowTests.class, FastTests.class})
+            public class B {
+
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Tag;
+
+            @Tag("slow")
+            @Tag("FastTests")
+            public class B {
+
+            }
+        """
+    )
+
+    @Test
+    fun countTagsPerModule() {
+        val cus = parser.parse(
+            """
+                import org.junit.Test;
+                import org.junit.experimental.categories.Category;
+
+                @Category(SlowTests.class)
+                public class B {
+                    @Category(FastTests.class)
+                    @Test
+                    public void b() {
+                    }
+                }
+            """.trimIndent(),
+            "public interface FastTests {}",
+            "public interface SlowTests {}"
+        )
+        val pom = MavenParser.builder().build().parse(
+            """
+                <project>
+                    <modelVersion>4.0.0</modelVersion>
+                    <groupId>com.example</groupId>
+                    <artifactId>service</artifactId>
+                    <version>1.0</version>
+                </project>
+            """.trimIndent()
+        )[0].withSourcePath(Paths.get("service/pom.xml"))
+        val sources = listOf(pom, cus[0].withSourcePath(Paths.get("service/src/test/java/B.java"))) + cus.drop(1)
+        val ctx = InMemoryExecutionContext { throw it }
+
+        val results = CategoryToTag(mapOf("SlowTests" to "slow")).run(sources, ctx)
+
+        assertThat(TagCounts.of(ctx).getCounts(listOf(Paths.get("service"))))
+            .isEqualTo(mapOf("service" to mapOf("FastTests" to 1L, "slow" to 1L)))
+        assertThat(results).allMatch { it.before != null }
+    }
 }
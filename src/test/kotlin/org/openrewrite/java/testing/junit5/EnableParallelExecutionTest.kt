@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.junit5
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+import org.openrewrite.maven.MavenParser
+import java.nio.file.Paths
+
+class EnableParallelExecutionTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("junit-jupiter-api")
+        .build()
+
+    override val recipe: Recipe
+        get() = EnableParallelExecution()
+
+    @Test
+    fun staticStateKeepsTestsOnOneThread() = assertChanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+
+            class A {
+                static int counter;
+
+                @Test
+                void test() {
+                    counter++;
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.parallel.Execution;
+
+            import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+            @Execution(SAME_THREAD)
+            class A {
+                static int counter;
+
+                @Test
+                void test() {
+                    counter++;
+                }
+            }
+        """
+    )
+
+    @Test
+    fun systemPropertyChangesTakeALock() = assertChanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+
+            class A {
+                @Test
+                void test() {
+                    System.setProperty("a", "b");
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.parallel.ResourceLock;
+            import org.junit.jupiter.api.parallel.Resources;
+
+            @ResourceLock(Resources.SYSTEM_PROPERTIES)
+            class A {
+                @Test
+                void test() {
+                    System.setProperty("a", "b");
+                }
+            }
+        """
+    )
+
+    @Test
+    fun statelessTestsAreLeftAlone() = assertUnchanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+
+            class A {
+                private static final String NAME = "a";
+
+                @Test
+                void test() {
+                    NAME.length();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun mutableStaticFinalFieldsKeepTestsOnOneThread() = assertChanged(
+        before = """
+            import org.junit.jupiter.api.Test;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            class A {
+                private static final List<String> NAMES = new ArrayList<>();
+
+                @Test
+                void test() {
+                    NAMES.add("a");
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.parallel.Execution;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+            @Execution(SAME_THREAD)
+            class A {
+                private static final List<String> NAMES = new ArrayList<>();
+
+                @Test
+                void test() {
+                    NAMES.add("a");
+                }
+            }
+        """
+    )
+
+    @Test
+    fun addsPropertiesToModulesWithTests() {
+        val pom = MavenParser.builder().build().parse(
+            """
+                <project>
+                    <modelVersion>4.0.0</modelVersion>
+                    <groupId>com.example</groupId>
+                    <artifactId>service</artifactId>
+                    <version>1.0</version>
+                </project>
+            """.trimIndent()
+        )[0].withSourcePath(Paths.get("service/pom.xml"))
+        val cu = parser.parse(
+            """
+                import org.junit.jupiter.api.Test;
+
+                class A {
+                    @Test
+                    void test() {
+                    }
+                }
+            """.trimIndent()
+        )[0].withSourcePath(Paths.get("service/src/test/java/A.java"))
+
+        val results = recipe.run(listOf(pom, cu), InMemoryExecutionContext { throw it })
+
+        val properties = results.find { it.before == null }
+        assertThat(properties).isNotNull
+        assertThat(properties!!.after!!.sourcePath).isEqualTo(Paths.get("service/src/test/resources/junit-platform.properties"))
+        assertThat(properties.after!!.print()).contains("junit.jupiter.execution.parallel.enabled = true")
+    }
+
+    @Test
+    fun testsOutsideOfAnyModuleGetNoProperties() {
+        val cu = parser.parse(
+            """
+                import org.junit.jupiter.api.Test;
+
+                class A {
+                    @Test
+                    void test() {
+                    }
+                }
+            """.trimIndent()
+        )[0].withSourcePath(Paths.get("src/test/java/A.java"))
+
+        assertThat(recipe.run(listOf(cu), InMemoryExecutionContext { throw it })).isEmpty()
+    }
+}
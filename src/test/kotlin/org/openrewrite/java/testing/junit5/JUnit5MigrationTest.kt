@@ -15,7 +15,9 @@
  */
 package org.openrewrite.java.testing.junit5
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
 import org.openrewrite.Issue
 import org.openrewrite.Recipe
 import org.openrewrite.config.Environment
@@ -71,4 +73,96 @@ class JUnit5MigrationTest : JavaRecipeTest {
         """.trimIndent()
     )
 
+    /**
+     * The migration used to run [ExpectedExceptionToAssertThrows] a second time, after
+     * [MockitoJUnitToMockitoExtension]. Running that extra step over these sources must not change what the migration
+     * produces.
+     */
+    @Test
+    fun repeatingExpectedExceptionToAssertThrowsChangesNothing() {
+        val corpus = arrayOf(
+            """
+                import org.junit.Rule;
+                import org.junit.Test;
+                import org.junit.rules.ExpectedException;
+
+                public class ExpectsTest {
+                    @Rule
+                    public ExpectedException thrown = ExpectedException.none();
+
+                    @Test
+                    public void throwsExceptionWithSpecificType() {
+                        thrown.expect(NullPointerException.class);
+                        throw new NullPointerException();
+                    }
+
+                    @Test
+                    public void throwsExceptionWithMessage() {
+                        thrown.expect(IllegalArgumentException.class);
+                        thrown.expectMessage("bad");
+                        throw new IllegalArgumentException("bad");
+                    }
+                }
+            """,
+            """
+                import org.junit.Before;
+                import org.junit.Rule;
+                import org.junit.Test;
+                import org.junit.rules.ExpectedException;
+                import org.junit.rules.TemporaryFolder;
+
+                public class RulesTest {
+                    @Rule
+                    public TemporaryFolder tempDir = new TemporaryFolder();
+
+                    @Rule
+                    public ExpectedException thrown = ExpectedException.none();
+
+                    @Before
+                    public void setUp() {
+                    }
+
+                    @Test
+                    public void doesNotThrow() {
+                        String s = "no exception";
+                    }
+                }
+            """,
+            """
+                import org.junit.Assert;
+                import org.junit.Test;
+
+                public class PlainTest {
+                    @Test
+                    public void asserts() {
+                        Assert.assertEquals(1, 1);
+                    }
+                }
+            """
+        ).map { it.trimIndent() }
+
+        val steps = findRecipe(recipe, "org.openrewrite.java.testing.junit5.JUnit4to5Migration")!!.recipeList
+        val repeated = object : Recipe() {
+            override fun getDisplayName() = "JUnit 4 to 5 migration with a second ExpectedExceptionToAssertThrows"
+        }
+        for (step in steps) {
+            repeated.doNext(step)
+            if (step is MockitoJUnitToMockitoExtension) {
+                repeated.doNext(ExpectedExceptionToAssertThrows())
+            }
+        }
+
+        parser.reset()
+        val once = recipe.run(parser.parse(*corpus.toTypedArray()), InMemoryExecutionContext { throw it })
+        parser.reset()
+        val twice = repeated.run(parser.parse(*corpus.toTypedArray()), InMemoryExecutionContext { throw it })
+
+        assertThat(once).isNotEmpty
+        assertThat(twice.associate { it.after!!.sourcePath to it.after!!.print() })
+            .isEqualTo(once.associate { it.after!!.sourcePath to it.after!!.print() })
+    }
+
+    private fun findRecipe(recipe: Recipe, name: String): Recipe? =
+        if (recipe.name == name) recipe
+        else recipe.recipeList.asSequence().mapNotNull { findRecipe(it, name) }.firstOrNull()
 }
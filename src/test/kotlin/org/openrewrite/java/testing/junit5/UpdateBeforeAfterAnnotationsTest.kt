@@ -128,6 +128,40 @@ class UpdateBeforeAfterAnnotationsTest : JavaRecipeTest {
 
     @Issue("https://github.com/openrewrite/rewrite/issues/150")
     @Disabled
+    @Test
+    fun migratesOnlyTheAnnotationsInUse() = assertChanged(
+        before = """
+            import org.junit.AfterClass;
+            import org.junit.Before;
+            
+            class Test {
+            
+                @Before
+                void before() {
+                }
+            
+                @AfterClass
+                static void afterClass() {
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.AfterAll;
+            import org.junit.jupiter.api.BeforeEach;
+            
+            class Test {
+            
+                @BeforeEach
+                void before() {
+                }
+            
+                @AfterAll
+                static void afterClass() {
+                }
+            }
+        """
+    )
+
     @Test
     fun convertsToPackageVisibility() = assertChanged(
         before = """
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito
+
+import org.junit.jupiter.api.Test
+import org.openrewrite.Recipe
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+
+class LocalMocksToMockFieldsTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("junit-jupiter-api", "mockito-core")
+        .build()
+
+    override val recipe: Recipe
+        get() = LocalMocksToMockFields()
+
+    private val mockitoExtension = """
+        package org.mockito.junit.jupiter;
+        public class MockitoExtension {}
+    """
+
+    @Test
+    fun dummyMocksCreatedInLoopsBecomeFields() = assertChanged(
+        dependsOn = arrayOf(mockitoExtension),
+        before = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.extension.ExtendWith;
+            import org.mockito.Mockito;
+            import org.mockito.junit.jupiter.MockitoExtension;
+
+            import java.util.List;
+
+            @ExtendWith(MockitoExtension.class)
+            class A {
+
+                @Test
+                void first() {
+                    for (int i = 0; i < 100; i++) {
+                        List list = Mockito.mock(List.class);
+                        consume(list, i);
+                    }
+                }
+
+                @Test
+                void second() {
+                    for (String s : new String[]{"a", "b"}) {
+                        List list = Mockito.mock(List.class);
+                        consume(list, s.length());
+                    }
+                }
+
+                void consume(List list, int i) {
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.extension.ExtendWith;
+            import org.mockito.Mock;
+            import org.mockito.junit.jupiter.MockitoExtension;
+
+            import java.util.List;
+
+            @ExtendWith(MockitoExtension.class)
+            class A {
+                @Mock
+                List list;
+
+                @Test
+                void first() {
+                    for (int i = 0; i < 100; i++) {
+                        consume(list, i);
+                    }
+                }
+
+                @Test
+                void second() {
+                    for (String s : new String[]{"a", "b"}) {
+                        consume(list, s.length());
+                    }
+                }
+
+                void consume(List list, int i) {
+                }
+            }
+        """
+    )
+
+    @Test
+    fun mocksLocalToATestAreLeftAlone() = assertUnchanged(
+        dependsOn = arrayOf(mockitoExtension),
+        before = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.extension.ExtendWith;
+            import org.mockito.Mockito;
+            import org.mockito.junit.jupiter.MockitoExtension;
+
+            import java.util.List;
+
+            @ExtendWith(MockitoExtension.class)
+            class A {
+
+                @Test
+                void test() {
+                    List list = Mockito.mock(List.class);
+                    list.add("one");
+                }
+            }
+        """
+    )
+
+    @Test
+    fun stubbedOrVerifiedMocksCreatedInLoopsAreLeftAlone() = assertUnchanged(
+        dependsOn = arrayOf(mockitoExtension),
+        before = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.extension.ExtendWith;
+            import org.mockito.Mockito;
+            import org.mockito.junit.jupiter.MockitoExtension;
+
+            import java.util.ArrayList;
+            import java.util.List;
+
+            @ExtendWith(MockitoExtension.class)
+            class A {
+
+                @Test
+                void stubbed() {
+                    for (int i = 0; i < 2; i++) {
+                        List list = Mockito.mock(List.class);
+                        Mockito.when(list.size()).thenReturn(i);
+                    }
+                }
+
+                @Test
+                void verified() {
+                    for (int i = 0; i < 2; i++) {
+                        Runnable runnable = Mockito.mock(Runnable.class);
+                        runnable.run();
+                        Mockito.verify(runnable).run();
+                    }
+                }
+
+                @Test
+                void collected() {
+                    List<Runnable> runnables = new ArrayList<>();
+                    for (int i = 0; i < 2; i++) {
+                        Runnable runnable = Mockito.mock(Runnable.class);
+                        runnables.add(runnable);
+                    }
+                }
+            }
+        """
+    )
+}
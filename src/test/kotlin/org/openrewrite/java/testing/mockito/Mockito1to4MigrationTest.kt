@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.config.Environment
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+import org.openrewrite.maven.MavenParser
+
+class Mockito1to4MigrationTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("mockito-all", "junit", "hamcrest")
+        .build()
+
+    override val recipe: Recipe = Environment.builder()
+        .scanRuntimeClasspath("org.openrewrite.java.testing")
+        .build()
+        .activateRecipes("org.openrewrite.java.testing.mockito.Mockito1to4Migration")
+
+    @Test
+    fun runnerMovesToTheExtensionAlongWithTheTests() = assertChanged(
+        before = """
+            import org.junit.Test;
+            import org.junit.runner.RunWith;
+            import org.mockito.runners.MockitoJUnitRunner;
+
+            @RunWith(MockitoJUnitRunner.class)
+            public class ExampleTest {
+
+                @Test
+                public void test() {
+                }
+            }
+        """,
+        after = """
+            import org.junit.jupiter.api.Test;
+            import org.junit.jupiter.api.extension.ExtendWith;
+            import org.mockito.junit.jupiter.MockitoExtension;
+
+            @ExtendWith(MockitoExtension.class)
+            public class ExampleTest {
+
+                @Test
+                public void test() {
+                }
+            }
+        """
+    )
+
+    @Test
+    fun mockitoDependenciesAreUpgradedTo4() {
+        val javaSource = parser.parse("""
+            import org.junit.Test;
+            import org.junit.runner.RunWith;
+            import org.mockito.runners.MockitoJUnitRunner;
+
+            @RunWith(MockitoJUnitRunner.class)
+            public class ExampleTest {
+
+                @Test
+                public void test() {
+                }
+            }
+        """.trimIndent())[0]
+        val mavenSource = MavenParser.builder().build().parse("""
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>org.openrewrite.example</groupId>
+                <artifactId>integration-testing</artifactId>
+                <version>1.0</version>
+                <dependencies>
+                    <dependency>
+                        <groupId>junit</groupId>
+                        <artifactId>junit</artifactId>
+                        <version>4.12</version>
+                        <scope>test</scope>
+                    </dependency>
+                    <dependency>
+                        <groupId>org.mockito</groupId>
+                        <artifactId>mockito-core</artifactId>
+                        <version>1.10.19</version>
+                        <scope>test</scope>
+                    </dependency>
+                </dependencies>
+            </project>
+        """.trimIndent())[0]
+
+        val results = recipe.run(listOf(javaSource, mavenSource), InMemoryExecutionContext { throw it })
+
+        val pom = results.first { it.before === mavenSource }.after!!.print()
+        assertThat(pom).contains("<artifactId>junit-jupiter-api</artifactId>")
+        assertThat(pom).contains("<artifactId>mockito-junit-jupiter</artifactId>")
+        assertThat(pom).doesNotContain("<version>1.10.19</version>")
+        assertThat(Regex("<artifactId>mockito-junit-jupiter</artifactId>\\s*<version>4\\.").containsMatchIn(pom)).isTrue()
+    }
+}
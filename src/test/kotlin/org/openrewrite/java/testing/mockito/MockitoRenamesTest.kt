@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.mockito
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.Recipe
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.JavaRecipeTest
+
+class MockitoRenamesTest : JavaRecipeTest {
+    override val parser: JavaParser = JavaParser.fromJavaVersion()
+        .classpath("mockito-all")
+        .build()
+
+    override val recipe: Recipe
+        get() = MockitoRenames(
+            mapOf("org.mockito.Matchers anyVararg()" to "any"),
+            mapOf("org.mockito.Matchers" to "org.mockito.ArgumentMatchers")
+        )
+
+    @Test
+    fun renamesMethodsBeforeTheirDeclaringType() = assertChanged(
+        before = """
+            import org.mockito.Matchers;
+
+            class A {
+                void test() {
+                    Matchers.anyVararg();
+                    Matchers.anyString();
+                }
+            }
+        """,
+        after = """
+            import org.mockito.ArgumentMatchers;
+
+            class A {
+                void test() {
+                    ArgumentMatchers.any();
+                    ArgumentMatchers.anyString();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun onlyAppliesRenamesTheCompilationUnitNeeds() = assertUnchanged(
+        before = """
+            import org.mockito.Mockito;
+
+            class A {
+                void test() {
+                    Mockito.mock(Object.class);
+                }
+            }
+        """
+    )
+
+    @Test
+    fun renamesStaticallyImportedMethods() = assertChanged(
+        before = """
+            import static org.mockito.Matchers.anyVararg;
+
+            class A {
+                void test() {
+                    anyVararg();
+                }
+            }
+        """,
+        after = """
+            import static org.mockito.ArgumentMatchers.any;
+
+            class A {
+                void test() {
+                    any();
+                }
+            }
+        """
+    )
+
+    @Test
+    fun methodPatternsMustNameTheirDeclaringType() {
+        assertThat(MockitoRenames(mapOf("org.mockito.* anyVararg()" to "any"), null).validate().isValid).isFalse
+        assertThat(MockitoRenames(mapOf("*..Matchers anyVararg()" to "any"), null).validate().isValid).isFalse
+        assertThat(recipe.validate().isValid).isTrue
+    }
+}
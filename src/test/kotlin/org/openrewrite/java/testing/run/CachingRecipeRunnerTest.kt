@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.SourceFile
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.testing.junit5.AssertToAssertions
+import org.openrewrite.java.testing.junit5.EnableParallelExecution
+import org.openrewrite.java.testing.junit5.UpdateMockWebServer
+import org.openrewrite.maven.MavenParser
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.function.Function
+
+class CachingRecipeRunnerTest {
+
+    @Test
+    fun unchangedFilesAreNotParsedAgain(@TempDir dir: Path) {
+        val project = Files.createDirectories(dir.resolve("project"))
+        val changed = write(project, "ChangedTest.java", """
+            import org.junit.Assert;
+            class ChangedTest {
+                void test() {
+                    Assert.assertTrue(true);
+                }
+            }
+        """)
+        val unchanged = write(project, "UnchangedTest.java", """
+            import org.junit.Test;
+            class UnchangedTest {
+                @Test
+                void test() {
+                }
+            }
+        """)
+
+        val parsed = mutableListOf<Path>()
+        val parser = Function<List<Path>, List<SourceFile>> { paths ->
+            parsed.addAll(paths)
+            JavaParser.fromJavaVersion()
+                .classpath("junit")
+                .build()
+                .parse(paths, project, InMemoryExecutionContext())
+        }
+        val runner = CachingRecipeRunner(ResultCache(dir.resolve("cache"), 1024 * 1024))
+        val run = { runner.run(AssertToAssertions(), project, listOf(changed, unchanged), parser, InMemoryExecutionContext { throw it }) }
+
+        val first = run()
+        assertThat(parsed).hasSize(2)
+        assertThat(first.keys).containsExactly(project.relativize(changed))
+
+        parsed.clear()
+        assertThat(run()).isEqualTo(first)
+        assertThat(parsed).isEmpty()
+
+        Files.write(unchanged, Files.readAllLines(unchanged) + "// edited")
+        run()
+        assertThat(parsed).containsExactly(unchanged)
+    }
+
+    @Test
+    fun anEditRunsJustTheEditedFileOfAModuleAgain(@TempDir dir: Path) {
+        val project = Files.createDirectories(dir.resolve("project"))
+        val pom = write(project, "pom.xml", emptyPom)
+        val first = write(project, "FirstTest.java", """
+            import org.junit.Assert;
+            class FirstTest {
+                void test() {
+                    Assert.assertTrue(true);
+                }
+            }
+        """)
+        val second = write(project, "SecondTest.java", """
+            import org.junit.Assert;
+            class SecondTest {
+                void test() {
+                    Assert.assertFalse(false);
+                }
+            }
+        """)
+
+        val parsed = mutableListOf<Path>()
+        val runner = CachingRecipeRunner(ResultCache(dir.resolve("cache"), 1024 * 1024))
+        val run = {
+            runner.run(AssertToAssertions(), project, listOf(pom, first, second), parser(project, parsed),
+                InMemoryExecutionContext { throw it })
+        }
+
+        run()
+        assertThat(parsed).hasSize(3)
+
+        parsed.clear()
+        Files.write(second, Files.readAllLines(second) + "// edited")
+        run()
+        assertThat(parsed).containsExactly(second)
+    }
+
+    @Test
+    fun anEditRunsTheWholeModuleAgainForCrossFileRecipes(@TempDir dir: Path) {
+        val project = Files.createDirectories(dir.resolve("project"))
+        val pom = write(project, "pom.xml", emptyPom)
+        val mockWebServerTest = { name: String ->
+            write(project, "$name.java", """
+                import okhttp3.mockwebserver.MockWebServer;
+                import org.junit.Rule;
+                class $name {
+                    @Rule
+                    public MockWebServer server = new MockWebServer();
+                }
+            """)
+        }
+        val first = mockWebServerTest("FirstTest")
+        val second = mockWebServerTest("SecondTest")
+
+        val parsed = mutableListOf<Path>()
+        val runner = CachingRecipeRunner(ResultCache(dir.resolve("cache"), 1024 * 1024))
+        val run = {
+            runner.run(UpdateMockWebServer(), project, listOf(pom, first, second), parser(project, parsed),
+                InMemoryExecutionContext { throw it })
+        }
+
+        run()
+        parsed.clear()
+        Files.write(second, Files.readAllLines(second) + "// edited")
+        run()
+        assertThat(parsed).containsExactlyInAnyOrder(pom, first, second)
+    }
+
+    @Test
+    fun anEditRunsEveryFileOutsideOfAModuleAgainForCrossFileRecipes(@TempDir dir: Path) {
+        val project = Files.createDirectories(dir.resolve("project"))
+        val mockWebServerTest = { name: String ->
+            write(project, "$name.java", """
+                import okhttp3.mockwebserver.MockWebServer;
+                import org.junit.Rule;
+                class $name {
+                    @Rule
+                    public MockWebServer server = new MockWebServer();
+                }
+            """)
+        }
+        val first = mockWebServerTest("FirstTest")
+        val second = mockWebServerTest("SecondTest")
+
+        val parsed = mutableListOf<Path>()
+        val runner = CachingRecipeRunner(ResultCache(dir.resolve("cache"), 1024 * 1024))
+        val run = {
+            runner.run(UpdateMockWebServer(), project, listOf(first, second), parser(project, parsed),
+                InMemoryExecutionContext { throw it })
+        }
+
+        run()
+        parsed.clear()
+        Files.write(second, Files.readAllLines(second) + "// edited")
+        run()
+        assertThat(parsed).containsExactlyInAnyOrder(first, second)
+    }
+
+    @Test
+    fun generatedFilesAreReplayedFromTheCache(@TempDir dir: Path) {
+        val project = Files.createDirectories(dir.resolve("project"))
+        val pom = write(project, "pom.xml", emptyPom)
+        val test = write(project, "ATest.java", """
+            import org.junit.jupiter.api.Test;
+            class ATest {
+                @Test
+                void test() {
+                }
+            }
+        """)
+
+        val parsed = mutableListOf<Path>()
+        val runner = CachingRecipeRunner(ResultCache(dir.resolve("cache"), 1024 * 1024))
+        val run = {
+            runner.run(EnableParallelExecution(), project, listOf(pom, test), parser(project, parsed),
+                InMemoryExecutionContext { throw it })
+        }
+
+        val first = run()
+        assertThat(first.keys).contains(Paths.get("src/test/resources/junit-platform.properties"))
+
+        parsed.clear()
+        assertThat(run()).isEqualTo(first)
+        assertThat(parsed).isEmpty()
+    }
+
+    private val emptyPom = """
+        <project>
+            <modelVersion>4.0.0</modelVersion>
+            <groupId>org.openrewrite.example</groupId>
+            <artifactId>example</artifactId>
+            <version>1.0</version>
+        </project>
+    """
+
+    private fun parser(project: Path, parsed: MutableList<Path>) = Function<List<Path>, List<SourceFile>> { paths ->
+        parsed.addAll(paths)
+        val (poms, javaSources) = paths.partition { it.fileName.toString() == "pom.xml" }
+        JavaParser.fromJavaVersion()
+            .classpath("junit", "junit-jupiter-api", "mockwebserver")
+            .build()
+            .parse(javaSources, project, InMemoryExecutionContext()) +
+                MavenParser.builder().build().parse(poms, project, InMemoryExecutionContext())
+    }
+
+    private fun write(dir: Path, name: String, source: String): Path =
+        Files.write(dir.resolve(name), source.trimIndent().toByteArray())
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Tree
+import org.openrewrite.config.Environment
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.testing.corpus.JUnit4Corpus
+import org.openrewrite.marker.Markers
+import org.openrewrite.text.PlainText
+import java.nio.file.Paths
+import java.util.concurrent.ForkJoinPool
+
+class ParallelRecipeRunnerTest {
+
+    @Test
+    fun recipesHoldNoMutableState() {
+        val recipes = Environment.builder()
+            .scanRuntimeClasspath("org.openrewrite.java.testing")
+            .build()
+            .listRecipes()
+        assertThat(recipes).isNotEmpty
+        recipes.forEach { assertThat(RecipeState.mutableFields(it)).`as`(it.name).isEmpty() }
+    }
+
+    @Test
+    fun parallelResultsMatchSequentialResultsInOrder() {
+        val corpus = JUnit4Corpus(seed = 11, methodsPerClass = 3, assertionsPerMethod = 2)
+        val cus = JavaParser.fromJavaVersion()
+            .classpath(*corpus.classpath)
+            .build()
+            .parse(*corpus.generate(16).toTypedArray())
+        val recipe = Environment.builder()
+            .scanRuntimeClasspath("org.openrewrite.java.testing.junit5")
+            .build()
+            .activateRecipes("org.openrewrite.java.testing.junit5.JUnit4to5Migration")
+
+        val sequential = recipe.run(cus, InMemoryExecutionContext { throw it })
+        val pool = ForkJoinPool(4)
+        try {
+            val parallel = ParallelRecipeRunner(pool).run(recipe, cus, InMemoryExecutionContext { throw it })
+
+            assertThat(parallel.map { it.after!!.print() }).isEqualTo(sequential.map { it.after!!.print() })
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    @Test
+    fun largeModulesAreSplitOnlyWhenNoRecipeLooksAcrossFiles() {
+        val sourceFiles = listOf(text("a/pom.xml"), text("b/pom.xml")) +
+                (1..6).map { text("a/src/main/java/A$it.java") } +
+                text("b/src/main/java/B.java")
+
+        assertThat(ParallelRecipeRunner.partition(sourceFiles, 4, true).map { it.size })
+            .containsExactly(3, 3, 1, 2)
+        assertThat(ParallelRecipeRunner.partition(sourceFiles, 4, false).map { it.size })
+            .containsExactly(7, 2)
+    }
+
+    private fun text(path: String) = PlainText(Tree.randomId(), Paths.get(path), Markers.EMPTY, "")
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.java.ChangeType
+import org.openrewrite.java.testing.junit5.AssertToAssertions
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+class ResultCacheTest {
+
+    @Test
+    fun missThenHit(@TempDir dir: Path) {
+        val cache = ResultCache(dir, 1024 * 1024)
+        val recipeHash = ResultCache.recipeHash(AssertToAssertions())
+
+        assertThat(cache.get("a", recipeHash)).isNull()
+        cache.put("a", recipeHash, "")
+        cache.put("b", recipeHash, "--- a/B.java\n+++ b/B.java\n")
+
+        assertThat(cache.get("a", recipeHash)).isEmpty()
+        assertThat(cache.get("b", recipeHash)).isEqualTo("--- a/B.java\n+++ b/B.java\n")
+        assertThat(ResultCache(dir, 1024 * 1024).get("b", recipeHash)).isNotNull
+    }
+
+    @Test
+    fun recipeHashCoversOptions() {
+        assertThat(ResultCache.recipeHash(ChangeType("a.A", "b.B")))
+            .isEqualTo(ResultCache.recipeHash(ChangeType("a.A", "b.B")))
+            .isNotEqualTo(ResultCache.recipeHash(ChangeType("a.A", "c.C")))
+    }
+
+    @Test
+    fun evictsLeastRecentlyUsed(@TempDir dir: Path) {
+        val cache = ResultCache(dir, 4L * ResultCache.BLOCK_SIZE)
+        for (i in 0 until 4) {
+            cache.put("$i", "r", "")
+            // modification times are only as precise as the file system
+            age(dir, 4 - i)
+        }
+        assertThat(cache.get("0", "r")).isNotNull
+
+        cache.put("4", "r", "")
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3L * ResultCache.BLOCK_SIZE)
+        assertThat(cache.get("0", "r")).isNotNull
+        assertThat(cache.get("1", "r")).isNull()
+        assertThat(cache.get("4", "r")).isNotNull
+    }
+
+    private fun age(dir: Path, minutes: Int) {
+        Files.walk(dir).filter { it.toString().endsWith(".diff") }
+            .filter { System.currentTimeMillis() - Files.getLastModifiedTime(it).toMillis() < 30_000 }
+            .forEach {
+                Files.setLastModifiedTime(it, FileTime.fromMillis(System.currentTimeMillis() - minutes * 60_000L))
+            }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.config.Environment
+import org.openrewrite.java.ChangeType
+import org.openrewrite.java.testing.internal.RequiresReferencedTypes
+import java.nio.file.Paths
+
+class SourcePrefilterTest {
+    private val env = Environment.builder()
+        .scanRuntimeClasspath("org.openrewrite.java.testing")
+        .build()
+
+    @Test
+    fun everyRecipeOfTheModuleThatLooksAtOneFileAtATimeDeclaresTheTypesItRequires() {
+        env.listRecipes()
+            .filter { it.javaClass.name.startsWith("org.openrewrite.java.testing.") }
+            .filter { !CrossFileRecipes.visitsSourceSet(it.javaClass) }
+            .forEach { assertThat(it).`as`(it.name).isInstanceOf(RequiresReferencedTypes::class.java) }
+    }
+
+    @Test
+    fun compositesOfKnownRecipesAreFiltered() {
+        listOf(
+            "org.openrewrite.java.testing.junit5.JUnit4to5Migration",
+            "org.openrewrite.java.testing.junit5.JUnit5BestPractices",
+            "org.openrewrite.java.testing.assertj.Assertj",
+            "org.openrewrite.java.testing.mockito.Mockito1to3Migration"
+        ).forEach { assertThat(SourcePrefilter.of(env.activateRecipes(it)).isUnfiltered).`as`(it).isFalse() }
+    }
+
+    @Test
+    fun recipesReadingTheWholeSourceSetAreUnfiltered() {
+        assertThat(SourcePrefilter.of(env.activateRecipes("org.openrewrite.java.testing.cleanup.BestPractices")).isUnfiltered)
+            .isTrue()
+    }
+
+    @Test
+    fun skipsJavaSourcesThatMentionNoNeededPackage() {
+        val prefilter = SourcePrefilter.of(env.activateRecipes("org.openrewrite.java.testing.junit5.ExpectedExceptionToAssertThrows"))
+
+        assertThat(prefilter.mightChange(Paths.get("A.java"), """
+            import org.junit.rules.ExpectedException;
+            class A {}
+        """)).isTrue()
+        assertThat(prefilter.mightChange(Paths.get("B.java"), """
+            import org.junit.Test;
+            class B {}
+        """)).isFalse()
+        assertThat(prefilter.mightChange(Paths.get("pom.xml"), "<project/>")).isTrue()
+    }
+
+    @Test
+    fun passesSubclassesForRecipesThatReachInheritedMembers() {
+        val prefilter = SourcePrefilter.of(env.activateRecipes("org.openrewrite.java.testing.assertj.JUnitAssertEqualsToAssertThat"))
+
+        // BaseTest, declared in another file, extends org.junit.jupiter.api.Assertions.
+        assertThat(prefilter.mightChange(Paths.get("A.java"), """
+            class A extends BaseTest {
+                void test() { assertEquals(1, 1); }
+            }
+        """)).isTrue()
+        assertThat(prefilter.mightChange(Paths.get("B.java"), """
+            class B {
+                void test() { }
+            }
+        """)).isFalse()
+    }
+
+    @Test
+    fun readsTheTypesOfRewriteRecipesFromTheirOptions() {
+        val prefilter = SourcePrefilter.of(ChangeType("org.junit.Assert", "org.junit.jupiter.api.Assertions"))
+
+        assertThat(prefilter.isUnfiltered).isFalse()
+        assertThat(prefilter.mightChange(Paths.get("A.java"), "import org.junit.Assert; class A {}")).isTrue()
+        assertThat(prefilter.mightChange(Paths.get("B.java"), "class B {}")).isFalse()
+    }
+}
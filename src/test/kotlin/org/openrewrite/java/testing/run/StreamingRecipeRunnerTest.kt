@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.testing.run
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Result
+import org.openrewrite.SourceFile
+import org.openrewrite.config.Environment
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.testing.cleanup.TestsShouldIncludeAssertions
+import org.openrewrite.java.testing.corpus.JUnit4Corpus
+import org.openrewrite.java.testing.junit5.EnableParallelExecution
+import org.openrewrite.maven.MavenParser
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.function.Function
+
+class StreamingRecipeRunnerTest {
+    private val recipe = Environment.builder()
+        .scanRuntimeClasspath("org.openrewrite.java.testing.junit5")
+        .build()
+        .activateRecipes("org.openrewrite.java.testing.junit5.JUnit4to5Migration")
+
+    @Test
+    fun summarizesTheTypesOfOnlyIfUsingOptions() {
+        assertThat(StreamingRecipeRunner.onlyIfUsing(recipe)).contains("org.junit.jupiter.api.Test")
+    }
+
+    @Test
+    fun batchedResultsMatchASingleRun(@TempDir projectDir: Path) {
+        val corpus = JUnit4Corpus(seed = 5, methodsPerClass = 2, assertionsPerMethod = 2)
+        val sourcePaths = corpus.generate(10).mapIndexed { i, source ->
+            Files.write(projectDir.resolve("Generated${i}Test.java"), source.toByteArray())
+            projectDir.relativize(projectDir.resolve("Generated${i}Test.java"))
+        }
+        val javaParser = JavaParser.fromJavaVersion().classpath(*corpus.classpath).build()
+        val parser = Function<List<Path>, List<SourceFile>> { paths ->
+            javaParser.reset()
+            javaParser.parse(paths, projectDir, InMemoryExecutionContext())
+        }
+
+        val single = recipe.run(parser.apply(sourcePaths.map { projectDir.resolve(it) }), InMemoryExecutionContext { throw it })
+        val streamed = mutableListOf<Result>()
+        StreamingRecipeRunner(3).run(recipe, projectDir, sourcePaths, parser, { streamed.add(it) }, InMemoryExecutionContext { throw it })
+
+        assertThat(streamed.map { it.after!!.print() }).isEqualTo(single.map { it.after!!.print() })
+    }
+
+    @Test
+    fun pomsSeeASummaryOfTheModulesSources(@TempDir projectDir: Path) {
+        val corpus = JUnit4Corpus(seed = 7, methodsPerClass = 2, assertionsPerMethod = 2)
+        val sourcePaths = mutableListOf<Path>()
+        for (module in listOf("a", "b")) {
+            Files.createDirectories(projectDir.resolve("$module/src/test/java"))
+            sourcePaths.add(projectDir.relativize(Files.write(projectDir.resolve("$module/pom.xml"), pom(module).toByteArray())))
+            corpus.generate(4).forEachIndexed { i, source ->
+                val sourcePath = projectDir.resolve("$module/src/test/java/Generated${i}Test.java")
+                sourcePaths.add(projectDir.relativize(Files.write(sourcePath, source.toByteArray())))
+            }
+        }
+        val javaParser = JavaParser.fromJavaVersion().classpath(*corpus.classpath).build()
+        val parser = Function<List<Path>, List<SourceFile>> { paths ->
+            javaParser.reset()
+            val (poms, javaSources) = paths.partition { it.fileName.toString() == "pom.xml" }
+            javaParser.parse(javaSources, projectDir, InMemoryExecutionContext()) +
+                    MavenParser.builder().build().parse(poms, projectDir, InMemoryExecutionContext())
+        }
+
+        val single = recipe.run(parser.apply(sourcePaths.map { projectDir.resolve(it) }), InMemoryExecutionContext { throw it })
+        val streamed = mutableListOf<Result>()
+        StreamingRecipeRunner(3).run(recipe, projectDir, sourcePaths, parser, { streamed.add(it) }, InMemoryExecutionContext { throw it })
+
+        val pomsAfter = streamed.filter { it.after!!.sourcePath.endsWith("pom.xml") }
+        assertThat(pomsAfter).hasSize(2)
+        pomsAfter.forEach { assertThat(it.after!!.print()).contains("<artifactId>junit-jupiter-api</artifactId>") }
+        assertThat(streamed.associate { it.after!!.sourcePath to it.after!!.print() })
+            .isEqualTo(single.associate { it.after!!.sourcePath to it.after!!.print() })
+    }
+
+    @Test
+    fun refusesRecipesThatLookAcrossJavaSources(@TempDir projectDir: Path) {
+        listOf(TestsShouldIncludeAssertions(), EnableParallelExecution()).forEach { crossFile ->
+            assertThatThrownBy {
+                StreamingRecipeRunner(3).run(crossFile, projectDir, emptyList(), { emptyList<SourceFile>() }, { }, InMemoryExecutionContext())
+            }.isInstanceOf(IllegalArgumentException::class.java).hasMessageContaining(crossFile.name)
+        }
+    }
+
+    private fun pom(artifactId: String) = """
+        <project>
+            <modelVersion>4.0.0</modelVersion>
+            <groupId>org.openrewrite.example</groupId>
+            <artifactId>$artifactId</artifactId>
+            <version>1.0</version>
+            <dependencies>
+                <dependency>
+                    <groupId>junit</groupId>
+                    <artifactId>junit</artifactId>
+                    <version>4.12</version>
+                    <scope>test</scope>
+                </dependency>
+            </dependencies>
+        </project>
+    """.trimIndent()
+}